@@ -0,0 +1,57 @@
+package com.drinkspeed.benchmark;
+
+import com.drinkspeed.domain.User;
+import com.drinkspeed.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 여러 스레드가 동시에 잔을 추가할 때의 처리량
+ * activeUsers 가 작을수록 같은 사용자와 랭킹 인덱스에 경합이 몰린다.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class AddDrinkBenchmark {
+
+    private static final String[] DRINK_TYPES = {"SOJU", "BEER", "SOMAEK", "MAKGEOLLI", "FRUITSOJU"};
+
+    @Param({"1", "100", "10000"})
+    public int activeUsers;
+
+    private UserService userService;
+    private long[] userIds;
+
+    @Setup
+    public void setUp() {
+        userService = BenchmarkFixtures.newUserService();
+        userIds = new long[activeUsers];
+        for (int i = 0; i < activeUsers; i++) {
+            userIds[i] = userService.createUser("user-" + i).getId();
+        }
+    }
+
+    @Benchmark
+    public User addDrink() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return userService.addDrink(userIds[random.nextInt(userIds.length)],
+                DRINK_TYPES[random.nextInt(DRINK_TYPES.length)], 1.0);
+    }
+}
@@ -0,0 +1,63 @@
+package com.drinkspeed.benchmark;
+
+import com.drinkspeed.persistence.InMemoryUserRepository;
+import com.drinkspeed.persistence.UserArchive;
+import com.drinkspeed.persistence.UserEventLog;
+import com.drinkspeed.persistence.UserRepository;
+import com.drinkspeed.persistence.UserSnapshotMapper;
+import com.drinkspeed.service.ClusterService;
+import com.drinkspeed.service.DrinkEventDeduplicator;
+import com.drinkspeed.service.RoomService;
+import com.drinkspeed.service.UserService;
+import com.drinkspeed.util.AlcoholCalculator;
+import com.drinkspeed.util.DrinkTypeRegistry;
+import com.drinkspeed.util.PaceCalculator;
+import com.drinkspeed.util.RankingCalculator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+/**
+ * 스프링 컨텍스트 없이 벤치마크용 서비스 조립
+ * 아카이브와 클러스터 모드는 끄고(이벤트 로그는 넘기지 않으면 끈다), 이벤트 발행과 AI 작업 큐는 사용하지 않는다.
+ */
+final class BenchmarkFixtures {
+
+    private static final ApplicationEventPublisher NO_OP_PUBLISHER = event -> {
+    };
+
+    private BenchmarkFixtures() {
+    }
+
+    static UserService newUserService() {
+        return newUserService(new InMemoryUserRepository());
+    }
+
+    static UserService newUserService(UserRepository userRepository) {
+        return newUserService(userRepository, new UserEventLog(false, "build/jmh-wal", 50));
+    }
+
+    static UserService newUserService(UserRepository userRepository, UserEventLog userEventLog) {
+        DrinkTypeRegistry drinkTypeRegistry = new DrinkTypeRegistry();
+        ClusterService clusterService = newClusterService();
+        return new UserService(
+                new RoomService(userEventLog, NO_OP_PUBLISHER, clusterService),
+                new AlcoholCalculator(),
+                drinkTypeRegistry,
+                new RankingCalculator(),
+                new PaceCalculator(15, 10),
+                null,
+                NO_OP_PUBLISHER,
+                userEventLog,
+                new UserArchive(false, false, "build/jmh-archive"),
+                new DrinkEventDeduplicator(1000),
+                userRepository,
+                new UserSnapshotMapper(drinkTypeRegistry),
+                clusterService);
+    }
+
+    static ClusterService newClusterService() {
+        return new ClusterService(false, 0, List.of(), 128, 100, 2000, "", new ObjectMapper());
+    }
+}
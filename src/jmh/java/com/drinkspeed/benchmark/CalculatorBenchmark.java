@@ -0,0 +1,59 @@
+package com.drinkspeed.benchmark;
+
+import com.drinkspeed.domain.DrinkType;
+import com.drinkspeed.util.AlcoholCalculator;
+import com.drinkspeed.util.DrinkTypeRegistry;
+import com.drinkspeed.util.RankingCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 주량 계산 유틸 (소주 환산, 시속, 캐릭터 레벨)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CalculatorBenchmark {
+
+    private AlcoholCalculator alcoholCalculator;
+    private RankingCalculator rankingCalculator;
+    private List<DrinkType> drinkTypes;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        alcoholCalculator = new AlcoholCalculator();
+        rankingCalculator = new RankingCalculator();
+        drinkTypes = new DrinkTypeRegistry().types();
+    }
+
+    @Benchmark
+    public double calculateSojuEquivalent() {
+        return alcoholCalculator.calculateSojuEquivalent(drinkTypes.get(next++ % drinkTypes.size()), 2.0);
+    }
+
+    @Benchmark
+    public double calculateGlassPerHour() {
+        return alcoholCalculator.calculateGlassPerHour(next++ % 40, 1.5);
+    }
+
+    @Benchmark
+    public Integer determineCharacterLevel() {
+        // 0 ~ 10 잔/시간 구간을 고르게 훑는다.
+        return rankingCalculator.determineCharacterLevel((next++ % 100) / 10.0);
+    }
+}
@@ -0,0 +1,106 @@
+package com.drinkspeed.benchmark;
+
+import com.drinkspeed.domain.DrinkType;
+import com.drinkspeed.domain.User;
+import com.drinkspeed.util.AlcoholCalculator;
+import com.drinkspeed.util.DrinkTypeRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 잔 추가 변환 경로 비교
+ * - legacy: 요청마다 toUpperCase + 문자열 switch 두 번 (환산 비율, 주종별 카운터)
+ * - registry: 요청 경계에서 DrinkType 으로 한 번 변환 후 순번 인덱스 배열 갱신
+ *
+ * 할당 비교는 gc 프로파일러의 gc.alloc.rate.norm 값으로 확인한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DrinkConversionBenchmark {
+
+    // 클라이언트가 보내는 그대로의 입력 (대소문자 섞임)
+    private static final String[] INPUTS = {"soju", "BEER", "Somaek", "makgeolli", "FRUIT_SOJU"};
+
+    /**
+     * 변경 전 User 의 주종별 카운터 (고정소수점)
+     */
+    static final class LegacyCounters {
+        final AtomicLong total = new AtomicLong();
+        final AtomicLong soju = new AtomicLong();
+        final AtomicLong beer = new AtomicLong();
+        final AtomicLong somaek = new AtomicLong();
+        final AtomicLong makgeolli = new AtomicLong();
+        final AtomicLong fruitsoju = new AtomicLong();
+    }
+
+    private DrinkTypeRegistry registry;
+    private AlcoholCalculator calculator;
+    private User user;
+    private LegacyCounters legacy;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        registry = new DrinkTypeRegistry();
+        calculator = new AlcoholCalculator();
+        user = User.builder().id(1L).userName("bench").build();
+        legacy = new LegacyCounters();
+    }
+
+    @Benchmark
+    public double legacyAddDrink() {
+        String drinkType = INPUTS[next++ % INPUTS.length];
+        double sojuEquivalent = legacyRate(drinkType) * 1.0;
+        legacy.total.addAndGet(Math.round(sojuEquivalent * 1000));
+        legacyAddCount(legacy, drinkType, 1.0);
+        return sojuEquivalent;
+    }
+
+    @Benchmark
+    public double registryAddDrink() {
+        DrinkType drinkType = registry.resolve(INPUTS[next++ % INPUTS.length]);
+        double sojuEquivalent = calculator.calculateSojuEquivalent(drinkType, 1.0);
+        user.addTotalSojuEquivalent(sojuEquivalent);
+        user.addDrinkCount(drinkType, 1.0);
+        return sojuEquivalent;
+    }
+
+    private static double legacyRate(String drinkType) {
+        return switch (drinkType.toUpperCase()) {
+            case "SOJU" -> 1.0;
+            case "BEER" -> 0.7;
+            case "SOMAEK" -> 1.3;
+            case "MAKGEOLLI" -> 0.8;
+            case "FRUITSOJU", "FRUIT_SOJU" -> 0.5;
+            default -> 0.0;
+        };
+    }
+
+    private static void legacyAddCount(LegacyCounters counters, String drinkType, double glassCount) {
+        long fixed = Math.round(glassCount * 1000);
+        switch (drinkType.toUpperCase()) {
+            case "SOJU" -> counters.soju.addAndGet(fixed);
+            case "BEER" -> counters.beer.addAndGet(fixed);
+            case "SOMAEK" -> counters.somaek.addAndGet(fixed);
+            case "MAKGEOLLI" -> counters.makgeolli.addAndGet(fixed);
+            case "FRUITSOJU" -> counters.fruitsoju.addAndGet(fixed);
+            default -> {
+            }
+        }
+    }
+}
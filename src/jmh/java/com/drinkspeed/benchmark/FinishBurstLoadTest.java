@@ -0,0 +1,131 @@
+package com.drinkspeed.benchmark;
+
+import com.drinkspeed.config.AsyncConfig;
+import com.drinkspeed.config.VirtualThreadTaskExecutor;
+import com.drinkspeed.service.GeminiCallGuard;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 측정 종료 몰림(finish burst) 부하 테스트: 플랫폼 스레드 풀 vs 가상 스레드
+ *
+ * 종료 요청이 한꺼번에 들어온 상황을 흉내 내어 AI 메시지 작업 burst 개를 동시에 등록하고,
+ * 각 작업은 GeminiCallGuard 를 거쳐 latency-ms 만큼 블로킹되는 Gemini 호출을 수행한다.
+ * 등록~완료 지연의 p50/p99, 처리량, 기본 메시지로 대체된 수를 비교한다.
+ *
+ * ./gradlew finishBurstLoadTest -PloadTestArgs="burst=2000 latency-ms=300"
+ * 가상 스레드 모드는 Java 21 이상에서만 실행된다.
+ */
+public final class FinishBurstLoadTest {
+
+    private FinishBurstLoadTest() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = parse(args);
+        int burst = Integer.parseInt(options.getOrDefault("burst", "2000"));
+        long latencyMs = Long.parseLong(options.getOrDefault("latency-ms", "300"));
+        int geminiMaxConcurrent = Integer.parseInt(options.getOrDefault("gemini-max-concurrent", "64"));
+
+        System.out.printf("burst=%d latency-ms=%d gemini-max-concurrent=%d%n", burst, latencyMs, geminiMaxConcurrent);
+        System.out.printf("%-9s %8s %8s %8s %10s %9s %9s%n",
+                "mode", "done", "fallback", "rejected", "jobs/s", "p50(ms)", "p99(ms)");
+
+        ThreadPoolTaskExecutor platform = new AsyncConfig().aiMessageExecutor(4, 8, 100, new SimpleMeterRegistry());
+        try {
+            run("platform", platform, burst, latencyMs, geminiMaxConcurrent);
+        } finally {
+            platform.shutdown();
+        }
+
+        if (Runtime.version().feature() < 21) {
+            System.out.println("virtual   skipped (Java 21 이상 필요, 현재 " + Runtime.version().feature() + ")");
+            return;
+        }
+        VirtualThreadTaskExecutor virtual = new AsyncConfig().virtualAiMessageExecutor(64, 1000,
+                new SimpleMeterRegistry());
+        try {
+            run("virtual", virtual, burst, latencyMs, geminiMaxConcurrent);
+        } finally {
+            virtual.destroy();
+        }
+    }
+
+    private static void run(String mode, TaskExecutor executor, int burst, long latencyMs, int geminiMaxConcurrent)
+            throws InterruptedException {
+        GeminiCallGuard callGuard = new GeminiCallGuard(1_000_000, 30_000, 0.99, 2.0,
+                latencyMs * 4, latencyMs * 10, geminiMaxConcurrent, 2_000, 0, 0, 0.0, latencyMs * 4, latencyMs * 10,
+                latencyMs * 4, latencyMs * 10);
+        long[] latencies = new long[burst];
+        AtomicInteger done = new AtomicInteger();
+        AtomicInteger fallback = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+        CountDownLatch finished = new CountDownLatch(burst);
+
+        long startedAt = System.nanoTime();
+        int rejected = 0;
+        for (int i = 0; i < burst; i++) {
+            int job = i;
+            long submittedAt = System.nanoTime();
+            try {
+                executor.execute(() -> {
+                    String message = callGuard.execute(timeoutMs -> {
+                        sleep(latencyMs);
+                        return "ok";
+                    });
+                    (message != null ? done : fallback).incrementAndGet();
+                    latencies[job] = System.nanoTime() - submittedAt;
+                    completed.incrementAndGet();
+                    finished.countDown();
+                });
+            } catch (TaskRejectedException e) {
+                // 운영에서는 즉시 기본 메시지로 대체된다
+                rejected++;
+                latencies[job] = -1L;
+                finished.countDown();
+            }
+        }
+        finished.await(5, TimeUnit.MINUTES);
+        double elapsedSeconds = (System.nanoTime() - startedAt) / 1e9;
+
+        long[] sorted = Arrays.stream(latencies).filter(latency -> latency >= 0).sorted().toArray();
+        System.out.printf("%-9s %8d %8d %8d %10.1f %9.1f %9.1f%n", mode, done.get(), fallback.get(), rejected,
+                completed.get() / elapsedSeconds, percentileMs(sorted, 0.50), percentileMs(sorted, 0.99));
+    }
+
+    private static double percentileMs(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator > 0) {
+                options.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+        return options;
+    }
+}
@@ -0,0 +1,70 @@
+package com.drinkspeed.benchmark;
+
+import com.drinkspeed.domain.User;
+import com.drinkspeed.service.PercentileService;
+import com.drinkspeed.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 사용자 수에 따른 "X% 보다 많이 마셨어요" 계산 비용
+ * - sortedRanking: 전체 랭킹 목록에서 사용자 위치로 계산 (사용자 수에 비례)
+ * - sketch: 분위수 스케치 조회 (사용자 수와 무관)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class PercentileBenchmark {
+
+    private static final String[] DRINK_TYPES = {"SOJU", "BEER", "SOMAEK", "MAKGEOLLI", "FRUITSOJU"};
+
+    @Param({"1000", "100000", "1000000"})
+    public int userCount;
+
+    private UserService userService;
+    private PercentileService percentileService;
+
+    @Setup
+    public void setUp() {
+        userService = BenchmarkFixtures.newUserService();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < userCount; i++) {
+            User user = userService.createUser("user-" + i);
+            userService.addDrink(user.getId(), DRINK_TYPES[random.nextInt(DRINK_TYPES.length)],
+                    random.nextInt(1, 20));
+        }
+        // 이벤트 발행 없이 조립하므로 생성 시점의 사용자로 분포를 채운다.
+        percentileService = new PercentileService(userService, 0.01, 60, 48);
+    }
+
+    @Benchmark
+    public double sortedRanking() {
+        long userId = ThreadLocalRandom.current().nextLong(1, userCount + 1L);
+        User user = userService.findUserById(userId);
+        List<User> rankings = userService.getRankings();
+        return 100.0 * (rankings.size() - 1 - rankings.indexOf(user)) / rankings.size();
+    }
+
+    @Benchmark
+    public Map<String, Object> sketch() {
+        long userId = ThreadLocalRandom.current().nextLong(1, userCount + 1L);
+        return percentileService.percentileOf(userId, null);
+    }
+}
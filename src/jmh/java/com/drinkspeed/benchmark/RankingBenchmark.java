@@ -0,0 +1,66 @@
+package com.drinkspeed.benchmark;
+
+import com.drinkspeed.domain.User;
+import com.drinkspeed.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 사용자 수에 따른 랭킹 조회 비용
+ * 전체 목록(기본 GET /api/rankings), 상위 20명 페이지, 특정 사용자 주변 조회를 비교한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class RankingBenchmark {
+
+    private static final String[] DRINK_TYPES = {"SOJU", "BEER", "SOMAEK", "MAKGEOLLI", "FRUITSOJU"};
+
+    @Param({"1000", "100000", "1000000"})
+    public int userCount;
+
+    private UserService userService;
+
+    @Setup
+    public void setUp() {
+        userService = BenchmarkFixtures.newUserService();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < userCount; i++) {
+            User user = userService.createUser("user-" + i);
+            userService.addDrink(user.getId(), DRINK_TYPES[random.nextInt(DRINK_TYPES.length)],
+                    random.nextInt(1, 20));
+        }
+    }
+
+    @Benchmark
+    public List<User> fullRanking() {
+        return userService.getRankings();
+    }
+
+    @Benchmark
+    public List<User> topPage() {
+        return userService.getRankings(0, 20);
+    }
+
+    @Benchmark
+    public List<User> aroundUser() {
+        long userId = ThreadLocalRandom.current().nextLong(1, userCount + 1L);
+        return userService.getRankingsAround(userId, 10);
+    }
+}
@@ -0,0 +1,76 @@
+package com.drinkspeed.benchmark;
+
+import com.drinkspeed.domain.User;
+import com.drinkspeed.service.RateLimitService;
+import com.drinkspeed.service.RateLimitService.Budget;
+import com.drinkspeed.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청 한도 검사가 잔 추가 처리량에 주는 영향 (8 스레드, 활성 사용자 10,000 명)
+ * - addDrink: 한도 검사 없음
+ * - addDrinkRateLimited: 사용자 ID 별 토큰 버킷 검사 후 잔 추가 (한도에 걸리지 않도록 크게 설정)
+ * stripes 가 1 이면 모든 키가 락 하나를 공유한다.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class RateLimitBenchmark {
+
+    private static final int ACTIVE_USERS = 10_000;
+    private static final String[] DRINK_TYPES = {"SOJU", "BEER", "SOMAEK", "MAKGEOLLI", "FRUITSOJU"};
+
+    @Param({"1", "64"})
+    public int stripes;
+
+    private UserService userService;
+    private RateLimitService rateLimitService;
+    private long[] userIds;
+
+    @Setup
+    public void setUp() {
+        userService = BenchmarkFixtures.newUserService();
+        userIds = new long[ACTIVE_USERS];
+        for (int i = 0; i < ACTIVE_USERS; i++) {
+            userIds[i] = userService.createUser("user-" + i).getId();
+        }
+        double unlimited = 1e12;
+        rateLimitService = new RateLimitService(new SimpleMeterRegistry(), BenchmarkFixtures.newClusterService(),
+                true, true, false, stripes, ACTIVE_USERS, unlimited, unlimited, unlimited, unlimited, unlimited, unlimited,
+                unlimited, unlimited, unlimited, unlimited);
+    }
+
+    @Benchmark
+    public User addDrink() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return userService.addDrink(userIds[random.nextInt(userIds.length)],
+                DRINK_TYPES[random.nextInt(DRINK_TYPES.length)], 1.0);
+    }
+
+    @Benchmark
+    public User addDrinkRateLimited() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long userId = userIds[random.nextInt(userIds.length)];
+        rateLimitService.acquire(Budget.DRINK, userId);
+        return userService.addDrink(userId, DRINK_TYPES[random.nextInt(DRINK_TYPES.length)], 1.0);
+    }
+}
@@ -0,0 +1,86 @@
+package com.drinkspeed.benchmark;
+
+import com.drinkspeed.config.UserJsonModule;
+import com.drinkspeed.domain.AiMessageStatus;
+import com.drinkspeed.domain.User;
+import com.drinkspeed.service.SharePayloadCache;
+import com.drinkspeed.util.DrinkTypeRegistry;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 종료된 사용자 공유 링크 응답 비용 (8 스레드, 사용자 1,000 명)
+ * - serialize: 요청마다 User 직렬화 (캐시 전 동작)
+ * - cached: 미리 직렬화한 응답 조회
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class ShareResponseBenchmark {
+
+    private static final int USER_COUNT = 1_000;
+
+    private ObjectMapper objectMapper;
+    private SharePayloadCache sharePayloadCache;
+    private User[] users;
+
+    @Setup
+    public void setUp() {
+        // 스프링 기본 설정과 같게 날짜는 ISO 문자열로 쓰고, 술 종류별 잔 수 필드를 붙인다.
+        DrinkTypeRegistry registry = new DrinkTypeRegistry();
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .addModule(new UserJsonModule(registry))
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        sharePayloadCache = new SharePayloadCache(objectMapper, true, USER_COUNT, 512, 86400);
+        users = new User[USER_COUNT];
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < USER_COUNT; i++) {
+            User user = User.builder()
+                    .id(i + 1L)
+                    .userName("user-" + i)
+                    .joinedAt(now.minusHours(3))
+                    .finishedAt(now)
+                    .characterLevel(i % 5)
+                    .aiMessage("user-" + i + "님, 소주 환산 기준 7.0잔을 3시간 동안 마시셨네요! 꾸준한 페이스가 돋보입니다.")
+                    .aiMessageStatus(AiMessageStatus.DONE)
+                    .build();
+            user.addTotalSojuEquivalent(7.0);
+            user.addDrinkCount(registry.resolve("SOJU"), 5.0);
+            user.addDrinkCount(registry.resolve("BEER"), 2.0);
+            users[i] = user;
+        }
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(users[ThreadLocalRandom.current().nextInt(USER_COUNT)]);
+    }
+
+    @Benchmark
+    public byte[] cached() {
+        return sharePayloadCache.get(users[ThreadLocalRandom.current().nextInt(USER_COUNT)]).body();
+    }
+}
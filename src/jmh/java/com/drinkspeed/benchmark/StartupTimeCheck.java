@@ -0,0 +1,130 @@
+package com.drinkspeed.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 기동 시간 측정: 프로세스 시작부터 첫 성공 요청(GET /api/rankings 200)까지의 시간
+ *
+ * startupArchive 가 만든 build/startup/app.jar 를 모드별로 runs 번씩 새 JVM 으로 띄운다.
+ * - baseline: java -jar app.jar
+ * - cds: AppCDS 아카이브 사용 (-XX:SharedArchiveFile)
+ * - cds+aot: AppCDS + Spring AOT 초기화 코드 사용 (-PfastStartup 으로 빌드한 경우만)
+ * 아카이브를 만든 JDK 와 같은 JDK 로 실행해야 아카이브가 적용된다.
+ *
+ * ./gradlew startupTimeCheck -PfastStartup -PstartupCheckArgs="runs=10"
+ */
+public final class StartupTimeCheck {
+
+    private static final String READY_PATH = "/api/rankings";
+
+    private StartupTimeCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        File jar = new File(options.getOrDefault("jar", "build/startup/app.jar"));
+        File archive = new File(options.getOrDefault("archive", "build/startup/app.jsa"));
+        boolean aot = Boolean.parseBoolean(options.getOrDefault("aot", "false"));
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        long timeoutMs = Long.parseLong(options.getOrDefault("timeout-ms", "60000"));
+        if (!jar.isFile()) {
+            throw new IllegalArgumentException("실행할 jar 가 없습니다: " + jar + " (./gradlew startupArchive)");
+        }
+
+        Map<String, List<String>> modes = new LinkedHashMap<>();
+        modes.put("baseline", List.of());
+        if (archive.isFile()) {
+            modes.put("cds", List.of("-XX:SharedArchiveFile=" + archive.getPath()));
+            if (aot) {
+                modes.put("cds+aot", List.of("-XX:SharedArchiveFile=" + archive.getPath(),
+                        "-Dspring.aot.enabled=true"));
+            }
+        }
+
+        String java = ProcessHandle.current().info().command()
+                .orElse(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+
+        System.out.printf("jar=%s runs=%d%n", jar, runs);
+        System.out.printf("%-9s %10s %10s %10s%n", "mode", "min(ms)", "median(ms)", "max(ms)");
+        for (Map.Entry<String, List<String>> mode : modes.entrySet()) {
+            double[] samples = new double[runs];
+            for (int i = 0; i < runs; i++) {
+                samples[i] = timeToFirstRequest(java, jar, mode.getValue(), http, timeoutMs);
+            }
+            Arrays.sort(samples);
+            System.out.printf("%-9s %10.1f %10.1f %10.1f%n", mode.getKey(), samples[0], samples[runs / 2],
+                    samples[runs - 1]);
+        }
+    }
+
+    private static double timeToFirstRequest(String java, File jar, List<String> jvmArgs, HttpClient http,
+            long timeoutMs) throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(jvmArgs);
+        command.add("-jar");
+        command.add(jar.getPath());
+        command.add("--server.port=" + port);
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + READY_PATH))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+        long startedAt = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            long deadline = startedAt + timeoutMs * 1_000_000L;
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("애플리케이션이 종료되었습니다: exit code " + process.exitValue());
+                }
+                try {
+                    if (http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return (System.nanoTime() - startedAt) / 1e6;
+                    }
+                } catch (IOException e) {
+                    // 아직 포트가 열리지 않았다.
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException(timeoutMs + "ms 안에 첫 요청이 성공하지 않았습니다.");
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator > 0) {
+                options.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+        return options;
+    }
+}
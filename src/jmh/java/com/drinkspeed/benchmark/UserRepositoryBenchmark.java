@@ -0,0 +1,83 @@
+package com.drinkspeed.benchmark;
+
+import com.drinkspeed.domain.User;
+import com.drinkspeed.persistence.H2UserRepository;
+import com.drinkspeed.persistence.InMemoryUserRepository;
+import com.drinkspeed.persistence.UserRepository;
+import com.drinkspeed.persistence.UserSnapshotMapper;
+import com.drinkspeed.service.UserService;
+import com.drinkspeed.util.DrinkTypeRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 사용자 저장소 구현별 잔 추가 / 조회 처리량 (memory vs h2 write-behind)
+ * h2 는 측정 중에도 flusher 스레드가 flush-interval-ms 마다 변경분을 기록한다.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class UserRepositoryBenchmark {
+
+    private static final int USERS = 10_000;
+
+    @Param({"memory", "h2"})
+    public String repository;
+
+    private UserRepository userRepository;
+    private UserService userService;
+    private long[] userIds;
+
+    @Setup
+    public void setUp() throws SQLException {
+        if ("h2".equals(repository)) {
+            H2UserRepository h2 = new H2UserRepository(new UserSnapshotMapper(new DrinkTypeRegistry()),
+                    "jdbc:h2:file:./build/jmh-h2/users-" + System.nanoTime(), 200, 500);
+            h2.open();
+            userRepository = h2;
+        } else {
+            userRepository = new InMemoryUserRepository();
+        }
+        userService = BenchmarkFixtures.newUserService(userRepository);
+        userIds = new long[USERS];
+        for (int i = 0; i < USERS; i++) {
+            userIds[i] = userService.createUser("user-" + i).getId();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (userRepository instanceof H2UserRepository h2) {
+            h2.close();
+        }
+    }
+
+    @Benchmark
+    public User addDrink() {
+        return userService.addDrink(userIds[ThreadLocalRandom.current().nextInt(USERS)], "SOJU", 1.0);
+    }
+
+    @Benchmark
+    public User findUserById() {
+        return userService.findUserById(userIds[ThreadLocalRandom.current().nextInt(USERS)]);
+    }
+}
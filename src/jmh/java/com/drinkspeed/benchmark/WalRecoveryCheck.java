@@ -0,0 +1,106 @@
+package com.drinkspeed.benchmark;
+
+import com.drinkspeed.domain.User;
+import com.drinkspeed.persistence.InMemoryUserRepository;
+import com.drinkspeed.persistence.UserEventLog;
+import com.drinkspeed.service.UserService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 이벤트 로그 복구 시간 측정 (기본 잔 추가 100만 건)
+ *
+ * 임시 디렉터리에 사용자 users 명과 잔 추가 events 건을 기록하고 닫은 뒤,
+ * 새 UserService 로 스냅샷 + 세그먼트 재생 복구에 걸린 시간을 잰다.
+ * snapshot-at 을 주면 그만큼 기록한 뒤 스냅샷을 남겨 나머지만 재생한다.
+ * 복구한 사용자 수와 누적 잔 수 합계가 기록 전과 다르면 종료 코드 1 로 끝난다.
+ *
+ * ./gradlew walRecoveryCheck -PwalCheckArgs="events=1000000 users=10000 snapshot-at=500000"
+ */
+public final class WalRecoveryCheck {
+
+    private static final String[] DRINK_TYPES = {"SOJU", "BEER", "SOMAEK", "MAKGEOLLI", "FRUITSOJU"};
+
+    private WalRecoveryCheck() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = parse(args);
+        int events = Integer.parseInt(options.getOrDefault("events", "1000000"));
+        int users = Integer.parseInt(options.getOrDefault("users", "10000"));
+        int snapshotAt = Integer.parseInt(options.getOrDefault("snapshot-at", "0"));
+
+        Path directory = Files.createTempDirectory("wal-recovery-check");
+        try {
+            System.out.printf("events=%d users=%d snapshot-at=%d%n", events, users, snapshotAt);
+
+            UserEventLog writeLog = new UserEventLog(true, directory.toString(), 50);
+            UserService writer = BenchmarkFixtures.newUserService(new InMemoryUserRepository(), writeLog);
+            writer.recoverUserStore();
+            long[] userIds = new long[users];
+            for (int i = 0; i < users; i++) {
+                userIds[i] = writer.createUser("user-" + i).getId();
+            }
+            long writeStartedAt = System.nanoTime();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < events; i++) {
+                if (snapshotAt > 0 && i == snapshotAt) {
+                    writer.snapshotUserStore();
+                }
+                writer.addDrink(userIds[random.nextInt(users)], DRINK_TYPES[random.nextInt(DRINK_TYPES.length)], 1.0);
+            }
+            writeLog.close();
+            long writeMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - writeStartedAt);
+
+            long recoverStartedAt = System.nanoTime();
+            UserEventLog readLog = new UserEventLog(true, directory.toString(), 50);
+            UserService restored = BenchmarkFixtures.newUserService(new InMemoryUserRepository(), readLog);
+            restored.recoverUserStore();
+            long recoverNanos = System.nanoTime() - recoverStartedAt;
+            readLog.close();
+
+            System.out.printf("write %d ms, recover %d ms (%.0f events/s)%n", writeMs,
+                    TimeUnit.NANOSECONDS.toMillis(recoverNanos), events / (recoverNanos / 1e9));
+
+            double expected = totalSojuEquivalent(writer);
+            double actual = totalSojuEquivalent(restored);
+            if (restored.getLiveUserCount() != users || Math.abs(expected - actual) > 1e-6 * Math.max(1.0, expected)) {
+                System.out.printf("FAIL: users %d / %d, total soju %.3f / %.3f%n", restored.getLiveUserCount(), users,
+                        actual, expected);
+                System.exit(1);
+            }
+            System.out.println("OK");
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private static double totalSojuEquivalent(UserService userService) {
+        double total = 0.0;
+        for (User user : userService.getRankings()) {
+            total += user.getTotalSojuEquivalent();
+        }
+        return total;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator > 0) {
+                options.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+        return options;
+    }
+}
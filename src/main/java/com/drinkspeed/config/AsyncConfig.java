@@ -1,22 +1,97 @@
 package com.drinkspeed.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 public class AsyncConfig {
 
     @Bean(name = "taskExecutor")
-    public Executor taskExecutor() {
+    public Executor taskExecutor(MeterRegistry meterRegistry) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(5);
         executor.setMaxPoolSize(10);
         executor.setQueueCapacity(25);
         executor.setThreadNamePrefix("AsyncExecutor-");
+        executor.setRejectedExecutionHandler(countRejections(meterRegistry, "taskExecutor"));
         executor.initialize();
         return executor;
     }
+
+    /**
+     * AI 메시지 생성 전용 워커 풀
+     * 큐가 가득 차면 TaskRejectedException 을 던지고, 호출 측에서 기본 메시지로 대체한다.
+     */
+    @Bean(name = "aiMessageExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor aiMessageExecutor(
+            @Value("${ai-message.executor.core-pool-size:4}") int corePoolSize,
+            @Value("${ai-message.executor.max-pool-size:8}") int maxPoolSize,
+            @Value("${ai-message.executor.queue-capacity:100}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("AiMessage-");
+        executor.setRejectedExecutionHandler(countRejections(meterRegistry, "aiMessageExecutor"));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * AI 메시지 생성 워커 (가상 스레드 모드)
+     * 블로킹 Gemini 호출마다 가상 스레드를 쓰고, 풀 크기 대신 세마포어로 동시 실행/대기 수를 제한한다.
+     * 실제 Gemini 동시 호출 수는 gemini.resilience.max-concurrent-calls 가 따로 제한한다.
+     */
+    @Bean(name = "aiMessageExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public VirtualThreadTaskExecutor virtualAiMessageExecutor(
+            @Value("${ai-message.virtual.max-concurrency:64}") int maxConcurrency,
+            @Value("${ai-message.virtual.max-pending:1000}") int maxPending,
+            MeterRegistry meterRegistry) {
+        Counter rejected = rejectedCounter(meterRegistry, "aiMessageExecutor");
+        VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor("AiMessage-", maxConcurrency, maxPending,
+                30_000L, rejected::increment);
+        // 스레드 풀이 아니므로 부트의 executor.* 지표 대신 같은 이름으로 직접 등록
+        Gauge.builder("executor.active", executor, VirtualThreadTaskExecutor::getActiveCount)
+                .tag("name", "aiMessageExecutor")
+                .register(meterRegistry);
+        Gauge.builder("executor.queued", executor, VirtualThreadTaskExecutor::getQueueSize)
+                .tag("name", "aiMessageExecutor")
+                .register(meterRegistry);
+        return executor;
+    }
+
+    /**
+     * 거절 횟수를 executor.rejected 로 기록한 뒤 기본 정책(AbortPolicy)대로 예외를 던진다.
+     * 큐 길이/활성 스레드 수는 스프링 부트가 executor.* 지표로 자동 등록한다.
+     */
+    private static RejectedExecutionHandler countRejections(MeterRegistry meterRegistry, String executorName) {
+        Counter rejected = rejectedCounter(meterRegistry, executorName);
+        RejectedExecutionHandler abort = new ThreadPoolExecutor.AbortPolicy();
+        return (task, executor) -> {
+            rejected.increment();
+            abort.rejectedExecution(task, executor);
+        };
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String executorName) {
+        return Counter.builder("executor.rejected")
+                .tag("name", executorName)
+                .register(meterRegistry);
+    }
 }
@@ -0,0 +1,29 @@
+package com.drinkspeed.config;
+
+import com.drinkspeed.service.ClusterService;
+import com.drinkspeed.service.RateLimitService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * 여러 노드 실행 (cluster.enabled=true)
+ *
+ * 동시 처리 한도 필터 다음에 소유 노드 라우팅 필터를 둔다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "cluster.enabled", havingValue = "true")
+public class ClusterConfig {
+
+    @Bean
+    public FilterRegistrationBean<ClusterRoutingFilter> clusterRoutingFilter(ClusterService clusterService,
+            RateLimitService rateLimitService) {
+        FilterRegistrationBean<ClusterRoutingFilter> registration = new FilterRegistrationBean<>(
+                new ClusterRoutingFilter(clusterService, rateLimitService));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,148 @@
+package com.drinkspeed.config;
+
+import com.drinkspeed.service.ClusterService;
+import com.drinkspeed.service.RateLimitService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 다른 노드가 소유한 사용자 / 방 요청을 소유 노드로 전달
+ *
+ * - /api/users/{userId}/**, /api/rooms/{roomId}/**, /api/rankings?around={userId}: 소유 노드로 프록시
+ * - /api/rankings/stream?roomId= (또는 userId=): SSE 는 프록시하지 않고 소유 노드로 307 리다이렉트
+ * 다른 노드가 전달한 요청(ClusterService.isPeerRequest)은 다시 전달하지 않는다.
+ * 소유 노드가 같은 클라이언트 기준으로 요청 한도를 세도록 X-Forwarded-For 를 이 노드가 판단한 클라이언트 주소로 바꾼다.
+ */
+public class ClusterRoutingFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterRoutingFilter.class);
+
+    private static final Pattern OWNED_PATH = Pattern.compile("^/api/(?:users|rooms)/(\\d+)(?:/.*)?$");
+    private static final String STREAM_PATH = "/api/rankings/stream";
+    private static final String RANKINGS_PATH = "/api/rankings";
+
+    private static final String FORWARDED_FOR_HEADER = "X-Forwarded-For";
+
+    // 전달하지 않는 요청 / 응답 헤더 (연결 단위 헤더, 본문 길이는 다시 계산, 클라이언트 주소와 노드 표시는 다시 지정)
+    private static final Set<String> SKIPPED_REQUEST_HEADERS = Set.of("host", "connection", "content-length",
+            "accept-encoding", "transfer-encoding", "x-forwarded-for", "x-cluster-forwarded", "x-cluster-secret");
+    private static final Set<String> SKIPPED_RESPONSE_HEADERS = Set.of("connection", "content-length",
+            "transfer-encoding", "keep-alive");
+
+    private final ClusterService clusterService;
+    private final RateLimitService rateLimitService;
+
+    public ClusterRoutingFilter(ClusterService clusterService, RateLimitService rateLimitService) {
+        this.clusterService = clusterService;
+        this.rateLimitService = rateLimitService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (clusterService.isPeerRequest(request) || "OPTIONS".equals(request.getMethod())) {
+            chain.doFilter(request, response);
+            return;
+        }
+        String path = request.getRequestURI();
+        if (STREAM_PATH.equals(path)) {
+            Long key = parseKey(request.getParameter("roomId") != null
+                    ? request.getParameter("roomId") : request.getParameter("userId"));
+            if (key != null && !clusterService.isLocal(key)) {
+                response.setStatus(HttpServletResponse.SC_TEMPORARY_REDIRECT);
+                response.setHeader("Location", targetUrl(clusterService.ownerUrl(key), request));
+                return;
+            }
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Long key = null;
+        Matcher matcher = OWNED_PATH.matcher(path);
+        if (matcher.matches()) {
+            key = parseKey(matcher.group(1));
+        } else if (RANKINGS_PATH.equals(path)) {
+            key = parseKey(request.getParameter("around"));
+        }
+        if (key == null || clusterService.isLocal(key)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        proxy(clusterService.ownerUrl(key), request, response);
+    }
+
+    private void proxy(String ownerUrl, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Request.Builder builder = new Request.Builder().url(targetUrl(ownerUrl, request));
+        for (String name : Collections.list(request.getHeaderNames())) {
+            if (!SKIPPED_REQUEST_HEADERS.contains(name.toLowerCase())) {
+                for (String value : Collections.list(request.getHeaders(name))) {
+                    builder.addHeader(name, value);
+                }
+            }
+        }
+        clusterService.markForwarded(builder);
+        builder.header(FORWARDED_FOR_HEADER, rateLimitService.clientKey(request));
+
+        RequestBody body = null;
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            String contentType = request.getContentType();
+            body = RequestBody.create(request.getInputStream().readAllBytes(),
+                    contentType != null ? MediaType.parse(contentType) : null);
+        }
+        builder.method(request.getMethod(), body);
+
+        try (Response upstream = clusterService.httpClient().newCall(builder.build()).execute()) {
+            response.setStatus(upstream.code());
+            Headers headers = upstream.headers();
+            for (int i = 0; i < headers.size(); i++) {
+                if (!SKIPPED_RESPONSE_HEADERS.contains(headers.name(i).toLowerCase())) {
+                    response.addHeader(headers.name(i), headers.value(i));
+                }
+            }
+            ResponseBody upstreamBody = upstream.body();
+            if (upstreamBody != null) {
+                byte[] bytes = upstreamBody.bytes();
+                response.setContentLength(bytes.length);
+                response.getOutputStream().write(bytes);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to forward {} {} to {}: {}", request.getMethod(), request.getRequestURI(), ownerUrl,
+                    e.getMessage());
+            response.sendError(HttpServletResponse.SC_BAD_GATEWAY, "소유 노드에 요청을 전달하지 못했습니다.");
+        }
+    }
+
+    private static String targetUrl(String ownerUrl, HttpServletRequest request) {
+        String query = request.getQueryString();
+        return ownerUrl + request.getRequestURI() + (query != null ? "?" + query : "");
+    }
+
+    private static Long parseKey(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.drinkspeed.config;
+
+import com.drinkspeed.service.GeminiResultCache;
+import com.drinkspeed.service.RankingStreamService;
+import com.drinkspeed.service.RoomService;
+import com.drinkspeed.service.UserService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 서비스 상태 게이지 (GET /actuator/metrics/{name} 으로 조회)
+ * 엔드포인트 지연은 http.server.requests, 워커 풀 상태는 executor.* 지표를 사용한다.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder drinkSpeedGauges(UserService userService, RoomService roomService,
+            RankingStreamService rankingStreamService, GeminiResultCache geminiResultCache) {
+        return registry -> {
+            Gauge.builder("users.live", userService, UserService::getLiveUserCount)
+                    .description("메모리에 있는 사용자 수")
+                    .register(registry);
+            Gauge.builder("rooms.active", roomService, RoomService::roomCount)
+                    .description("진행 중인 방 수")
+                    .register(registry);
+            Gauge.builder("ranking.stream.subscribers", rankingStreamService, RankingStreamService::subscriberCount)
+                    .description("랭킹 스트림 구독자 수")
+                    .register(registry);
+            Gauge.builder("gemini.cache.size", geminiResultCache, GeminiResultCache::size)
+                    .description("Gemini 결과 캐시 항목 수")
+                    .register(registry);
+        };
+    }
+}
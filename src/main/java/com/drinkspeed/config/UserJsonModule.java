@@ -0,0 +1,78 @@
+package com.drinkspeed.config;
+
+import com.drinkspeed.domain.DrinkType;
+import com.drinkspeed.domain.User;
+import com.drinkspeed.util.DrinkTypeRegistry;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.databind.util.NameTransformer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * User 응답 JSON 에 술 종류별 잔 수 필드(sojuCount, beerCount ...)를 추가하는 Jackson 모듈
+ *
+ * 등록된 술 종류는 주입받은 DrinkTypeRegistry 에서 읽는다. (스프링 부트가 ObjectMapper 에 자동 등록)
+ */
+@Component
+public class UserJsonModule extends SimpleModule {
+
+    public UserJsonModule(DrinkTypeRegistry drinkTypeRegistry) {
+        super("UserJsonModule");
+        setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public JsonSerializer<?> modifySerializer(SerializationConfig config, BeanDescription beanDesc,
+                    JsonSerializer<?> serializer) {
+                if (beanDesc.getBeanClass() != User.class) {
+                    return serializer;
+                }
+                return new UserSerializer((JsonSerializer<Object>) serializer, drinkTypeRegistry);
+            }
+        });
+    }
+
+    /**
+     * 기본 빈 직렬화기로 필드를 쓴 뒤 술 종류별 잔 수를 이어 쓴다.
+     */
+    private static final class UserSerializer extends StdSerializer<User> implements ResolvableSerializer {
+
+        private final JsonSerializer<Object> beanSerializer;
+        private final DrinkTypeRegistry drinkTypeRegistry;
+        private JsonSerializer<Object> fieldsSerializer;
+
+        UserSerializer(JsonSerializer<Object> beanSerializer, DrinkTypeRegistry drinkTypeRegistry) {
+            super(User.class);
+            this.beanSerializer = beanSerializer;
+            this.drinkTypeRegistry = drinkTypeRegistry;
+        }
+
+        @Override
+        public void resolve(SerializerProvider provider) throws JsonMappingException {
+            if (beanSerializer instanceof ResolvableSerializer resolvable) {
+                resolvable.resolve(provider);
+            }
+            // 여는/닫는 괄호 없이 필드만 쓰는 직렬화기 (속성 정보가 채워진 뒤에 만든다)
+            fieldsSerializer = beanSerializer.unwrappingSerializer(NameTransformer.NOP);
+        }
+
+        @Override
+        public void serialize(User user, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(user);
+            fieldsSerializer.serialize(user, gen, provider);
+            for (DrinkType drinkType : drinkTypeRegistry.types()) {
+                gen.writeNumberField(drinkType.countField(), user.getDrinkCount(drinkType));
+            }
+            gen.writeEndObject();
+        }
+    }
+}
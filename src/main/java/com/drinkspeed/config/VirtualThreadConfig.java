@@ -0,0 +1,36 @@
+package com.drinkspeed.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * 가상 스레드 모드 (spring.threads.virtual.enabled=true 이고 Java 21 이상일 때만 적용)
+ *
+ * Tomcat 요청 처리는 스프링 부트가 가상 스레드로 바꿔 주므로,
+ * 스레드 수 대신 동시 처리 요청 수를 세마포어로 제한한다.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            @Value("${server.virtual-threads.max-concurrent-requests:400}") int maxConcurrentRequests,
+            @Value("${server.virtual-threads.acquire-timeout-ms:500}") long acquireTimeoutMs,
+            MeterRegistry meterRegistry) {
+        Counter rejected = Counter.builder("http.server.requests.rejected")
+                .description("동시 처리 한도 초과로 503 응답한 요청 수")
+                .register(meterRegistry);
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(maxConcurrentRequests, acquireTimeoutMs, rejected));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
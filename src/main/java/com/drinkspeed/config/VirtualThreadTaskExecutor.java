@@ -0,0 +1,79 @@
+package com.drinkspeed.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * 가상 스레드 실행기 (작업마다 가상 스레드 하나, Java 21 이상)
+ *
+ * 스레드 수 대신 세마포어로 동시 실행 수와 대기 작업 수를 제한한다.
+ * 대기 한도를 넘으면 스레드 풀의 큐가 가득 찼을 때처럼 TaskRejectedException 을 던진다.
+ */
+public class VirtualThreadTaskExecutor implements TaskExecutor, DisposableBean {
+
+    private final SimpleAsyncTaskExecutor delegate;
+    private final int maxConcurrency;
+    private final int maxAdmitted;
+    private final Semaphore admitted;
+    private final Semaphore running;
+    private final Runnable onRejected;
+
+    public VirtualThreadTaskExecutor(String threadNamePrefix, int maxConcurrency, int maxPending,
+            long terminationTimeoutMs, Runnable onRejected) {
+        this.delegate = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        this.delegate.setVirtualThreads(true);
+        this.delegate.setTaskTerminationTimeout(terminationTimeoutMs);
+        this.maxConcurrency = maxConcurrency;
+        this.maxAdmitted = maxConcurrency + maxPending;
+        this.admitted = new Semaphore(maxAdmitted);
+        this.running = new Semaphore(maxConcurrency);
+        this.onRejected = onRejected;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (!admitted.tryAcquire()) {
+            onRejected.run();
+            throw new TaskRejectedException("Virtual thread executor is full (" + maxAdmitted + " tasks)");
+        }
+        try {
+            delegate.execute(() -> runLimited(task));
+        } catch (RuntimeException e) {
+            admitted.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 동시 실행 한도 안에서 실행 (대기는 가상 스레드가 세마포어에서 한다)
+     */
+    private void runLimited(Runnable task) {
+        try {
+            running.acquireUninterruptibly();
+            try {
+                task.run();
+            } finally {
+                running.release();
+            }
+        } finally {
+            admitted.release();
+        }
+    }
+
+    public int getActiveCount() {
+        return maxConcurrency - running.availablePermits();
+    }
+
+    public int getQueueSize() {
+        return Math.max(0, maxAdmitted - admitted.availablePermits() - getActiveCount());
+    }
+
+    @Override
+    public void destroy() {
+        delegate.close();
+    }
+}
@@ -0,0 +1,55 @@
+package com.drinkspeed.controller;
+
+import com.drinkspeed.domain.RankingSort;
+import com.drinkspeed.dto.RankingResponse;
+import com.drinkspeed.service.ClusterService;
+import com.drinkspeed.service.RoomService;
+import com.drinkspeed.service.UserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 노드 간 호출용 API (전체 랭킹 병합, 노드 상태)
+ */
+@RestController
+@RequestMapping("/internal/cluster")
+@RequiredArgsConstructor
+public class ClusterController {
+
+    private final ClusterService clusterService;
+    private final UserService userService;
+    private final RoomService roomService;
+
+    /**
+     * 이 노드의 상위 limit 명 (방에 속하지 않은 사용자)
+     * GET /internal/cluster/rankings?sort=total&limit=100
+     */
+    @GetMapping("/rankings")
+    public ResponseEntity<List<RankingResponse>> getLocalRankings(
+            @RequestParam(required = false) String sort,
+            @RequestParam int limit) {
+        return ResponseEntity.ok(userService.getRankingResponses(null, RankingSort.from(sort), 0, limit));
+    }
+
+    /**
+     * 노드 상태
+     * GET /internal/cluster/node
+     */
+    @GetMapping("/node")
+    public ResponseEntity<Map<String, Object>> getNode() {
+        Map<String, Object> node = new LinkedHashMap<>();
+        node.put("clusterEnabled", clusterService.isEnabled());
+        node.put("nodeId", clusterService.nodeId());
+        node.put("liveUsers", userService.getLiveUserCount());
+        node.put("rooms", roomService.roomCount());
+        return ResponseEntity.ok(node);
+    }
+}
@@ -0,0 +1,60 @@
+package com.drinkspeed.controller;
+
+import com.drinkspeed.service.GeminiCallGuard;
+import com.drinkspeed.service.GeminiResultCache;
+import com.drinkspeed.service.SharePayloadCache;
+import com.drinkspeed.service.UserRetentionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/metrics")
+@RequiredArgsConstructor
+public class MetricsController {
+
+    private final GeminiResultCache geminiResultCache;
+    private final GeminiCallGuard geminiCallGuard;
+    private final UserRetentionService userRetentionService;
+    private final SharePayloadCache sharePayloadCache;
+
+    /**
+     * Gemini 결과 캐시 통계 (hit/miss/coalesced)
+     * GET /api/metrics/gemini-cache
+     */
+    @GetMapping("/gemini-cache")
+    public ResponseEntity<Map<String, Object>> getGeminiCacheStats() {
+        return ResponseEntity.ok(geminiResultCache.stats());
+    }
+
+    /**
+     * Gemini 호출 보호 장치 상태 (서킷 상태, 재시도, 적응형 타임아웃)
+     * GET /api/metrics/gemini-client
+     */
+    @GetMapping("/gemini-client")
+    public ResponseEntity<Map<String, Object>> getGeminiClientStats() {
+        return ResponseEntity.ok(geminiCallGuard.stats());
+    }
+
+    /**
+     * 사용자 저장소 메모리 사용량과 보관 정책 통계 (추정 크기, 내보낸 수, JVM 힙)
+     * GET /api/metrics/user-store
+     */
+    @GetMapping("/user-store")
+    public ResponseEntity<Map<String, Object>> getUserStoreStats() {
+        return ResponseEntity.ok(userRetentionService.stats());
+    }
+
+    /**
+     * 공유 링크 응답 캐시 통계 (hit/miss/eviction)
+     * GET /api/metrics/share-cache
+     */
+    @GetMapping("/share-cache")
+    public ResponseEntity<Map<String, Object>> getShareCacheStats() {
+        return ResponseEntity.ok(sharePayloadCache.stats());
+    }
+}
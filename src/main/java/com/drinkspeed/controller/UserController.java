@@ -1,22 +1,51 @@
 package com.drinkspeed.controller;
 
+import com.drinkspeed.domain.RankingSort;
+import com.drinkspeed.domain.Room;
 import com.drinkspeed.domain.User;
+import com.drinkspeed.dto.DrinkBatchResponse;
+import com.drinkspeed.dto.DrinkEntry;
+import com.drinkspeed.service.ClusterService;
+import com.drinkspeed.service.PercentileService;
+import com.drinkspeed.service.RankingSnapshotService;
+import com.drinkspeed.service.RankingStreamService;
+import com.drinkspeed.service.RateLimitService;
+import com.drinkspeed.service.RateLimitService.Budget;
+import com.drinkspeed.service.RoomService;
+import com.drinkspeed.service.SharePayloadCache;
 import com.drinkspeed.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api")
 @RequiredArgsConstructor
 public class UserController {
 
+    private static final int DEFAULT_AROUND_LIMIT = 10;
+    private static final String RANKING_VERSION_HEADER = "X-Ranking-Version";
+
     private final UserService userService;
+    private final RoomService roomService;
+    private final RankingStreamService rankingStreamService;
+    private final RankingSnapshotService rankingSnapshotService;
+    private final ClusterService clusterService;
+    private final PercentileService percentileService;
+    private final RateLimitService rateLimitService;
+    private final SharePayloadCache sharePayloadCache;
 
     // --- DTOs for Request Bodies ---
     @Data
@@ -24,6 +53,16 @@ public class UserController {
         private String userName;
     }
 
+    @Data
+    private static class DrinkBatchRequest {
+        private List<DrinkEntry> drinks;
+    }
+
+    @Data
+    private static class CreateRoomRequest {
+        private String name;
+    }
+
     @Data
     private static class DrinkRequest {
         private String drinkType;
@@ -37,7 +76,8 @@ public class UserController {
      * POST /api/users
      */
     @PostMapping("/users")
-    public ResponseEntity<User> createUser(@RequestBody CreateUserRequest request) {
+    public ResponseEntity<User> createUser(@RequestBody CreateUserRequest request, HttpServletRequest servletRequest) {
+        rateLimitService.acquire(Budget.CREATE, rateLimitService.clientKey(servletRequest));
         User newUser = userService.createUser(request.getUserName());
         return ResponseEntity.ok(newUser);
     }
@@ -49,20 +89,62 @@ public class UserController {
     @PostMapping("/users/{userId}/drinks")
     public ResponseEntity<User> addDrink(
             @PathVariable Long userId,
-            @RequestBody DrinkRequest request) {
+            @RequestBody DrinkRequest request,
+            HttpServletRequest servletRequest) {
+        rateLimitService.acquire(Budget.CLIENT, rateLimitService.clientKey(servletRequest));
+        rateLimitService.acquire(Budget.DRINK, userId);
         User updatedUser = userService.addDrink(userId, request.getDrinkType(), request.getGlassCount());
         return ResponseEntity.ok(updatedUser);
     }
 
     
 
+    /**
+     * 잔 일괄 추가 (eventId 로 중복 제거)
+     * POST /api/drinks/batch
+     * 클러스터 모드에서는 항목을 사용자 소유 노드별로 나눠 전달한다.
+     * IP 기준 한도는 처음 받은 노드에서, 사용자 ID 기준 한도는 항목을 반영하는 소유 노드에서 항목 수만큼 센다.
+     */
+    @PostMapping("/drinks/batch")
+    public ResponseEntity<?> addDrinks(
+            @RequestBody DrinkBatchRequest request,
+            HttpServletRequest servletRequest) {
+        boolean fromPeer = clusterService.isPeerRequest(servletRequest);
+        if (!fromPeer) {
+            rateLimitService.acquire(Budget.CLIENT, rateLimitService.clientKey(servletRequest));
+        }
+        if (clusterService.isEnabled() && !fromPeer) {
+            return ResponseEntity.ok(clusterService.addDrinks(request.getDrinks(), this::addOwnedDrinks));
+        }
+        DrinkBatchResponse response = addOwnedDrinks(request.getDrinks());
+        return ResponseEntity.ok(response);
+    }
+
+    private DrinkBatchResponse addOwnedDrinks(List<DrinkEntry> entries) {
+        Map<Long, Integer> entriesPerUser = new HashMap<>();
+        if (entries != null) {
+            for (DrinkEntry entry : entries) {
+                if (entry != null && entry.getUserId() != null) {
+                    entriesPerUser.merge(entry.getUserId(), 1, Integer::sum);
+                }
+            }
+        }
+        entriesPerUser.forEach((userId, count) -> rateLimitService.acquire(Budget.DRINK, userId, count));
+        return userService.addDrinks(entries);
+    }
+
     /**
      * 개인 종료
      * POST /api/users/{userId}/finish
+     * 클라이언트의 AI 요청 한도를 넘으면 종료는 처리하고 AI 메시지는 기본 메시지로 대체한다.
+     * AI 토큰은 종료가 반영된 뒤에만 쓴다. (없는 사용자, 이미 종료된 사용자 요청은 쓰지 않음)
      */
     @PostMapping("/users/{userId}/finish")
-    public ResponseEntity<User> finishUser(@PathVariable Long userId) {
-        User user = userService.finishUser(userId);
+    public ResponseEntity<User> finishUser(@PathVariable Long userId, HttpServletRequest servletRequest) {
+        String clientKey = rateLimitService.clientKey(servletRequest);
+        rateLimitService.acquire(Budget.CLIENT, clientKey);
+        rateLimitService.acquire(Budget.FINISH, userId);
+        User user = userService.finishUser(userId, () -> rateLimitService.tryAcquire(Budget.AI, clientKey));
         return ResponseEntity.ok(user);
     }
 
@@ -75,26 +157,204 @@ public class UserController {
         User user = userService.findUserById(userId);
         Map<String, String> response = new HashMap<>();
         response.put("aiMessage", user.getAiMessage());
+        response.put("status", user.getAiMessageStatus() != null ? user.getAiMessageStatus().name() : null);
         return ResponseEntity.ok(response);
     }
 
     /**
      * 사용자 조회 (공유 링크 용)
      * GET /api/users/{userId}
+     * 결과가 확정된 사용자는 미리 직렬화한 응답 (ETag, 긴 Cache-Control, If-None-Match 가 같으면 304)
+     * 진행 중인 사용자는 매번 새로 직렬화하고 캐시하지 않도록 한다.
      */
     @GetMapping("/users/{userId}")
-    public ResponseEntity<User> getUser(@PathVariable Long userId) {
+    public ResponseEntity<?> getUser(@PathVariable Long userId, WebRequest request) {
         User user = userService.findUserById(userId);
-        return ResponseEntity.ok(user);
+        SharePayloadCache.SharePayload payload = sharePayloadCache.get(user);
+        if (payload == null) {
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(user);
+        }
+        boolean gzip = payload.gzipBody() != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String etag = gzip ? payload.gzipEtag() : payload.etag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.maxAge(sharePayloadCache.maxAgeSeconds(), TimeUnit.SECONDS)
+                        .cachePublic()
+                        .immutable())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(gzip ? payload.gzipBody() : payload.body());
+    }
+
+    /**
+     * 사용자 분포상 위치 ("X% 보다 많이 마셨어요")와 분포 분위수
+     * GET /api/users/{userId}/percentile?scope=global (global | bucket: 같은 참여 시각 구간)
+     */
+    @GetMapping("/users/{userId}/percentile")
+    public ResponseEntity<Map<String, Object>> getPercentile(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String scope) {
+        return ResponseEntity.ok(percentileService.percentileOf(userId, scope));
+    }
+
+    /**
+     * 잔 수 / 시속 분포 분위수
+     * GET /api/distribution (전체)
+     * GET /api/distribution?buckets=3 (최근 참여 시각 구간 3개 병합)
+     */
+    @GetMapping("/distribution")
+    public ResponseEntity<Map<String, Object>> getDistribution(@RequestParam(defaultValue = "0") int buckets) {
+        return ResponseEntity.ok(percentileService.distribution(buckets));
     }
 
     /**
      * 전체 랭킹 조회
-     * GET /api/rankings
+     * GET /api/rankings (미리 직렬화한 스냅샷, If-None-Match 가 같으면 304)
+     * GET /api/rankings?offset=0&limit=20
+     * GET /api/rankings?around={userId}&limit=10
+     * GET /api/rankings?sort=pace (total | pace | recent)
+     * 클러스터 모드에서는 노드별 상위 cluster.ranking.top-k 명을 병합한다. (around 는 소유 노드 안의 순위)
      */
     @GetMapping("/rankings")
-    public ResponseEntity<List<User>> getRankings() {
-        List<User> rankings = userService.getRankings();
-        return ResponseEntity.ok(rankings);
+    public ResponseEntity<?> getRankings(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(required = false) Long around,
+            @RequestParam(required = false) String sort,
+            WebRequest request) {
+        // 방에 속한 사용자는 전체 랭킹에 포함되지 않는다.
+        return rankings(null, limit, offset, around, sort, request);
+    }
+
+    /**
+     * 랭킹 실시간 스트림 (Server-Sent Events)
+     * GET /api/rankings/stream?userId={userId}&roomId={roomId}
+     * - ranking-snapshot: 구독 직후 전체(또는 방) 랭킹
+     * - ranking-delta: 변경된 사용자만 모아서 주기적으로 전송
+     * - ai-message-partial: userId 지정 시 스트리밍 생성 중인 AI 메시지 (지금까지 받은 전체 텍스트)
+     * - ai-message-ready: userId 지정 시 해당 사용자의 AI 메시지 완료 알림
+     * roomId 지정 시 해당 방 랭킹만 수신하고, 방이 종료되면 스트림이 닫힌다.
+     */
+    @GetMapping(value = "/rankings/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamRankings(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) Long roomId) {
+        return rankingStreamService.subscribe(userId, roomId);
+    }
+
+    /**
+     * 방 생성
+     * POST /api/rooms
+     */
+    @PostMapping("/rooms")
+    public ResponseEntity<Room> createRoom(@RequestBody CreateRoomRequest request, HttpServletRequest servletRequest) {
+        rateLimitService.acquire(Budget.CREATE, rateLimitService.clientKey(servletRequest));
+        Room room = roomService.createRoom(request.getName());
+        return ResponseEntity.ok(room);
+    }
+
+    /**
+     * 방 조회
+     * GET /api/rooms/{roomId}
+     */
+    @GetMapping("/rooms/{roomId}")
+    public ResponseEntity<Map<String, Object>> getRoom(@PathVariable Long roomId) {
+        Room room = roomService.findRoomById(roomId);
+        Map<String, Object> response = new HashMap<>();
+        response.put("id", room.getId());
+        response.put("name", room.getName());
+        response.put("createdAt", room.getCreatedAt());
+        response.put("userCount", roomService.userCount(roomId));
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 방 종료 (방의 사용자와 랭킹 제거)
+     * DELETE /api/rooms/{roomId}
+     */
+    @DeleteMapping("/rooms/{roomId}")
+    public ResponseEntity<Void> dropRoom(@PathVariable Long roomId) {
+        roomService.dropRoom(roomId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * 방에 사용자 생성
+     * POST /api/rooms/{roomId}/users
+     */
+    @PostMapping("/rooms/{roomId}/users")
+    public ResponseEntity<User> createRoomUser(
+            @PathVariable Long roomId,
+            @RequestBody CreateUserRequest request,
+            HttpServletRequest servletRequest) {
+        rateLimitService.acquire(Budget.CREATE, rateLimitService.clientKey(servletRequest));
+        User newUser = userService.createUser(request.getUserName(), roomId);
+        return ResponseEntity.ok(newUser);
+    }
+
+    /**
+     * 방 랭킹 조회
+     * GET /api/rooms/{roomId}/rankings (미리 직렬화한 스냅샷, If-None-Match 가 같으면 304)
+     * GET /api/rooms/{roomId}/rankings?offset=0&limit=20
+     * GET /api/rooms/{roomId}/rankings?around={userId}&limit=10
+     * GET /api/rooms/{roomId}/rankings?sort=pace (total | pace | recent)
+     */
+    @GetMapping("/rooms/{roomId}/rankings")
+    public ResponseEntity<?> getRoomRankings(
+            @PathVariable Long roomId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(required = false) Long around,
+            @RequestParam(required = false) String sort,
+            WebRequest request) {
+        return rankings(roomId, limit, offset, around, sort, request);
+    }
+
+    private ResponseEntity<?> rankings(Long roomId, Integer limit, int offset, Long around, String sort,
+            WebRequest request) {
+        RankingSort rankingSort = RankingSort.from(sort);
+        if (around != null) {
+            return ResponseEntity.ok(userService.getRankingResponsesAround(roomId, around,
+                    limit != null ? limit : DEFAULT_AROUND_LIMIT, rankingSort));
+        }
+        if (limit != null || offset > 0 || rankingSort != RankingSort.TOTAL) {
+            int size = limit != null ? limit : Integer.MAX_VALUE;
+            if (roomId == null && clusterService.isEnabled()) {
+                return ResponseEntity.ok(clusterService.globalRankings(rankingSort, offset, size,
+                        k -> userService.getRankingResponses(null, rankingSort, 0, k)));
+            }
+            return ResponseEntity.ok(userService.getRankingResponses(roomId, rankingSort, offset, size));
+        }
+
+        RankingSnapshotService.Snapshot snapshot = rankingSnapshotService.current(roomId);
+        if (request.checkNotModified(snapshot.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.etag())
+                .header(RANKING_VERSION_HEADER, Long.toString(snapshot.version()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.body());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                // gzip;q=0 은 거부 의사
+                String quality = parts.length > 1 ? parts[1].trim() : "";
+                return !quality.matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
     }
 }
@@ -0,0 +1,12 @@
+package com.drinkspeed.domain;
+
+/**
+ * AI 결과 메시지 생성 작업 상태
+ */
+public enum AiMessageStatus {
+    QUEUED,   // 작업 큐 대기 중
+    RUNNING,  // Gemini 호출 중
+    DONE,     // AI 메시지 생성 완료
+    FALLBACK, // 큐 포화 또는 호출 실패로 기본 메시지 사용
+    STREAMING // 스트리밍 생성 중 (aiMessage 는 지금까지 받은 부분 텍스트, 스냅샷 호환을 위해 마지막에 둔다)
+}
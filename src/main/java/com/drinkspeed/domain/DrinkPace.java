@@ -0,0 +1,119 @@
+package com.drinkspeed.domain;
+
+/**
+ * 사용자별 최근 음주 속도 상태
+ *
+ * - 최근 구간: 고정 크기 링 버퍼에 (시각, 소주 환산량) 을 두고 구간 합을 더하고 빼며 유지한다. (분할 상환 O(1))
+ * - 감쇠 속도: 마지막 기록 시각 기준 지수 감쇠 누적값 하나만 두고 기록할 때 갱신한다. (O(1))
+ * 시각은 epoch millis 이며, 늦게 도착한 과거 시각의 기록은 마지막 기록 시각으로 맞춘다.
+ */
+public class DrinkPace {
+
+    /**
+     * 저장용 상태 복사본 (최근 구간 기록은 오래된 순)
+     */
+    public record State(long[] timestamps, double[] amounts, double decayed, long lastMillis, double decayScore) {
+    }
+
+    // 구간 안의 기록이 이보다 많으면 가장 최근 칸에 합친다. (구간 합은 그대로 유지)
+    static final int CAPACITY = 32;
+
+    private final long[] timestamps = new long[CAPACITY];
+    private final double[] amounts = new double[CAPACITY];
+    private int head;
+    private int count;
+    private double windowSum;
+
+    private double decayed;
+    private long lastMillis;
+    private double decayScore = Double.NEGATIVE_INFINITY;
+
+    /**
+     * 기록 추가
+     *
+     * @param tauMillis 감쇠 시간 상수 (반감기 / ln 2)
+     */
+    public synchronized void record(long millis, double amount, long windowMillis, double tauMillis) {
+        long at = Math.max(millis, lastMillis);
+        evictBefore(at - windowMillis);
+        if (count == CAPACITY) {
+            amounts[(head + count - 1) % CAPACITY] += amount;
+        } else {
+            int tail = (head + count) % CAPACITY;
+            timestamps[tail] = at;
+            amounts[tail] = amount;
+            count++;
+        }
+        windowSum += amount;
+
+        decayed = lastMillis == 0L ? amount : decayed * Math.exp(-(at - lastMillis) / tauMillis) + amount;
+        lastMillis = at;
+        decayScore = decayed > 0.0 ? Math.log(decayed) + at / tauMillis : Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * nowMillis 기준 최근 windowMillis 동안의 소주 환산량 합
+     */
+    public synchronized double windowSum(long nowMillis, long windowMillis) {
+        evictBefore(nowMillis - windowMillis);
+        return windowSum;
+    }
+
+    /**
+     * nowMillis 시점까지 감쇠된 누적값
+     */
+    public synchronized double decayed(long nowMillis, double tauMillis) {
+        if (lastMillis == 0L) {
+            return 0.0;
+        }
+        return decayed * Math.exp(-Math.max(0L, nowMillis - lastMillis) / tauMillis);
+    }
+
+    /**
+     * 감쇠 속도 정렬 키 ln(누적값) + 마지막 기록 시각 / tau
+     * 모든 사용자가 같은 비율로 감쇠하므로 시간이 지나도 순서가 바뀌지 않아 랭킹 인덱스에 그대로 쓸 수 있다.
+     */
+    public synchronized double decayScore() {
+        return decayScore;
+    }
+
+    public synchronized State state() {
+        long[] stateTimestamps = new long[count];
+        double[] stateAmounts = new double[count];
+        for (int i = 0; i < count; i++) {
+            stateTimestamps[i] = timestamps[(head + i) % CAPACITY];
+            stateAmounts[i] = amounts[(head + i) % CAPACITY];
+        }
+        return new State(stateTimestamps, stateAmounts, decayed, lastMillis, decayScore);
+    }
+
+    /**
+     * 저장된 상태로 되돌림 (복구 시, 기록이 CAPACITY 보다 많으면 최근 기록만 둔다)
+     */
+    public synchronized void restore(State state) {
+        int skip = Math.max(0, state.timestamps().length - CAPACITY);
+        head = 0;
+        count = state.timestamps().length - skip;
+        windowSum = 0.0;
+        for (int i = 0; i < count; i++) {
+            timestamps[i] = state.timestamps()[skip + i];
+            amounts[i] = state.amounts()[skip + i];
+            windowSum += amounts[i];
+        }
+        decayed = state.decayed();
+        lastMillis = state.lastMillis();
+        decayScore = state.decayScore();
+    }
+
+    private void evictBefore(long cutoff) {
+        while (count > 0 && timestamps[head] <= cutoff) {
+            windowSum -= amounts[head];
+            head = (head + 1) % CAPACITY;
+            count--;
+        }
+        if (count == 0) {
+            // 부동소수점 오차 누적 방지
+            windowSum = 0.0;
+        }
+    }
+}
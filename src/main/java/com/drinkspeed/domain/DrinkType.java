@@ -0,0 +1,17 @@
+package com.drinkspeed.domain;
+
+/**
+ * 술 종류 (설정에서 읽어 DrinkTypeRegistry 가 순번을 매긴다)
+ *
+ * @param ordinal    등록 순번 (사용자별 잔 수 배열의 인덱스)
+ * @param code       대표 코드 (SOJU, BEER ...)
+ * @param sojuRate   1잔당 소주 환산 비율
+ * @param countField 응답 JSON 의 잔 수 필드명 (sojuCount ...)
+ */
+public record DrinkType(int ordinal, String code, double sojuRate, String countField) {
+
+    /**
+     * 등록 가능한 술 종류 수 (사용자별 잔 수 배열 크기)
+     */
+    public static final int MAX_TYPES = 8;
+}
@@ -0,0 +1,25 @@
+package com.drinkspeed.domain;
+
+/**
+ * 랭킹 정렬 기준
+ */
+public enum RankingSort {
+    TOTAL,   // 누적 소주 환산량
+    PACE,    // 지수 감쇠 속도 (최근 기록일수록 큰 가중치)
+    RECENT;  // 최근 구간 시속 (pace.window-minutes)
+
+    /**
+     * 요청 파라미터 변환 (대소문자 무시, 없으면 TOTAL)
+     */
+    public static RankingSort from(String value) {
+        if (value == null || value.isBlank()) {
+            return TOTAL;
+        }
+        for (RankingSort sort : values()) {
+            if (sort.name().equalsIgnoreCase(value.trim())) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("알 수 없는 정렬 기준입니다: " + value);
+    }
+}
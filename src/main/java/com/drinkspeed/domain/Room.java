@@ -0,0 +1,20 @@
+package com.drinkspeed.domain;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 술자리 방 (같은 방 사용자끼리만 랭킹을 공유)
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Room {
+
+    private Long id;
+    private String name;
+    private LocalDateTime createdAt;
+}
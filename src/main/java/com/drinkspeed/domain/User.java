@@ -1,9 +1,12 @@
 package com.drinkspeed.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
+import java.time.ZoneId;
 
 @Getter
 @Setter
@@ -12,36 +15,135 @@ import java.util.List;
 @Builder
 public class User {
 
+    /**
+     * 잔 수 고정소수점 배율 (0.001잔 단위)
+     */
+    private static final long FIXED_POINT_SCALE = 1000L;
+
+    private static final VarHandle TOTAL_SOJU_EQUIVALENT;
+    private static final VarHandle DRINK_COUNTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    static {
+        try {
+            TOTAL_SOJU_EQUIVALENT = MethodHandles.lookup()
+                    .findVarHandle(User.class, "totalSojuEquivalentFixed", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     private Long id;
+    private Long roomId;
     private String userName;
     private LocalDateTime joinedAt;
     private LocalDateTime finishedAt;
 
-    @Builder.Default
-    private Double totalSojuEquivalent = 0.0;
+    // joinedAt / finishedAt 의 epoch millis (시속 계산용, 처음 조회할 때 한 번만 변환, 0 이면 미계산)
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long joinedAtMillis;
 
-    // Individual drink counts
-    @Builder.Default
-    private Double sojuCount = 0.0;
-    @Builder.Default
-    private Double beerCount = 0.0;
-    @Builder.Default
-    private Double somaekCount = 0.0;
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long finishedAtMillis;
+
+    // 누적 카운터는 고정소수점 long 으로 보관하고 VarHandle 원자 연산으로만 갱신한다.
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile long totalSojuEquivalentFixed;
+
+    // 술 종류별 잔 수 (DrinkType.ordinal 인덱스, 고정소수점)
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
     @Builder.Default
-    private Double makgeolliCount = 0.0;
+    private long[] drinkCountsFixed = new long[DrinkType.MAX_TYPES];
+
+    // 최근 음주 속도 상태 (PaceCalculator 가 갱신)
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
     @Builder.Default
-    private Double fruitsojuCount = 0.0;
+    private DrinkPace pace = new DrinkPace();
 
     private Integer characterLevel;
-    private String aiMessage;
+    private volatile String aiMessage;
+    private volatile AiMessageStatus aiMessageStatus;
 
-    
+    public double getTotalSojuEquivalent() {
+        return fromFixed(totalSojuEquivalentFixed);
+    }
+
+    /**
+     * 술 종류별 잔 수 (응답 JSON 에는 UserJsonModule 이 sojuCount, beerCount ... 필드로 펼친다)
+     */
+    public double getDrinkCount(DrinkType drinkType) {
+        return fromFixed((long) DRINK_COUNTS.getVolatile(drinkCountsFixed, drinkType.ordinal()));
+    }
+
+    public void addTotalSojuEquivalent(double amount) {
+        TOTAL_SOJU_EQUIVALENT.getAndAdd(this, toFixed(amount));
+    }
+
+    public void addDrinkCount(DrinkType drinkType, double glassCount) {
+        DRINK_COUNTS.getAndAdd(drinkCountsFixed, drinkType.ordinal(), toFixed(glassCount));
+    }
 
     public void finish() {
-        this.finishedAt = LocalDateTime.now();
+        finish(LocalDateTime.now());
+    }
+
+    public void finish(LocalDateTime finishedAt) {
+        setFinishedAt(finishedAt);
+    }
+
+    public void setJoinedAt(LocalDateTime joinedAt) {
+        this.joinedAt = joinedAt;
+        this.joinedAtMillis = 0L;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+        this.finishedAtMillis = 0L;
+    }
+
+    public long getJoinedAtMillis() {
+        long millis = joinedAtMillis;
+        if (millis == 0L && joinedAt != null) {
+            millis = toEpochMillis(joinedAt);
+            joinedAtMillis = millis;
+        }
+        return millis;
+    }
+
+    /**
+     * 종료 시각 (epoch millis, 종료 전이면 -1)
+     */
+    public long getFinishedAtMillis() {
+        long millis = finishedAtMillis;
+        if (millis == 0L) {
+            if (finishedAt == null) {
+                return -1L;
+            }
+            millis = toEpochMillis(finishedAt);
+            finishedAtMillis = millis;
+        }
+        return millis;
     }
 
     public boolean isFinished() {
         return finishedAt != null;
     }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static long toFixed(double value) {
+        return Math.round(value * FIXED_POINT_SCALE);
+    }
+
+    private static double fromFixed(long value) {
+        return (double) value / FIXED_POINT_SCALE;
+    }
 }
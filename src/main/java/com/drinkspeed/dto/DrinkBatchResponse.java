@@ -0,0 +1,23 @@
+package com.drinkspeed.dto;
+
+import com.drinkspeed.domain.User;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DrinkBatchResponse {
+
+    // 반영된 항목 수
+    private Integer applied;
+
+    // 이미 처리된 eventId 라 건너뛴 항목 수
+    private Integer duplicates;
+
+    // 변경된 사용자 (요청에 처음 나온 순서)
+    private List<User> users;
+}
@@ -0,0 +1,26 @@
+package com.drinkspeed.dto;
+
+import lombok.*;
+
+/**
+ * 일괄 잔 추가 요청의 항목 하나 (탭 한 번)
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DrinkEntry {
+
+    // 클라이언트가 발급한 이벤트 ID (재전송 중복 제거용, 없으면 항상 반영)
+    private String eventId;
+
+    private Long userId;
+
+    private String drinkType;
+
+    private double glassCount;
+
+    // 클라이언트 기록 시각 (epoch millis, 없으면 서버 시각, [참여 시각, 서버 시각] 범위로 맞춘다)
+    private Long clientTimestamp;
+}
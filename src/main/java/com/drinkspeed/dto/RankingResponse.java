@@ -17,6 +17,12 @@ public class RankingResponse {
 
     private Double glassPerHour;
 
+    // 최근 구간(pace.window-minutes) 시속
+    private Double recentGlassPerHour;
+
+    // 지수 감쇠 속도 (잔/시간, 최근 기록일수록 큰 가중치)
+    private Double pace;
+
     private Double totalSojuEquivalent;
 
     private Integer characterLevel;
@@ -0,0 +1,7 @@
+package com.drinkspeed.event;
+
+/**
+ * 스트리밍으로 생성 중인 AI 결과 메시지의 부분 텍스트 (지금까지 받은 전체 텍스트)
+ */
+public record AiMessagePartialEvent(Long userId, String partialMessage) {
+}
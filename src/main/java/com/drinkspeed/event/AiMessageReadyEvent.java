@@ -0,0 +1,9 @@
+package com.drinkspeed.event;
+
+import com.drinkspeed.domain.AiMessageStatus;
+
+/**
+ * AI 결과 메시지 생성(또는 기본 메시지 대체)이 끝났음을 알리는 이벤트
+ */
+public record AiMessageReadyEvent(Long userId, String aiMessage, AiMessageStatus status) {
+}
@@ -0,0 +1,9 @@
+package com.drinkspeed.event;
+
+/**
+ * 진행 중인 사용자의 캐릭터 레벨이 시간 경과로 바뀌었음을 알리는 이벤트
+ *
+ * @param previousLevel 이전 레벨 (계산된 적이 없으면 null)
+ */
+public record CharacterLevelChangedEvent(Long userId, Long roomId, Integer previousLevel, Integer level) {
+}
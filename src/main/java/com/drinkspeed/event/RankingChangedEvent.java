@@ -0,0 +1,9 @@
+package com.drinkspeed.event;
+
+/**
+ * 사용자 랭킹 관련 값(소주 환산량, 레벨, 종료 여부)이 바뀌었음을 알리는 이벤트
+ *
+ * @param roomId 사용자가 속한 방 ID (전체 랭킹 사용자는 null)
+ */
+public record RankingChangedEvent(Long userId, Long roomId) {
+}
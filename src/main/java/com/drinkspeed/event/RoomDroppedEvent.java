@@ -0,0 +1,7 @@
+package com.drinkspeed.event;
+
+/**
+ * 방이 종료되어 방의 사용자/랭킹 상태가 제거되었음을 알리는 이벤트
+ */
+public record RoomDroppedEvent(Long roomId) {
+}
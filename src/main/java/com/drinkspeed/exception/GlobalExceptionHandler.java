@@ -2,6 +2,7 @@ package com.drinkspeed.exception;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -27,6 +28,31 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(HttpStatus.CONFLICT, e.getMessage());
     }
 
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<Map<String, String>> handleRateLimitExceededException(RateLimitExceededException e) {
+        logger.debug("RateLimitExceededException: {}", e.getMessage());
+        Map<String, String> response = new HashMap<>();
+        response.put("error", HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase());
+        response.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()))
+                .body(response);
+    }
+
+    @ExceptionHandler(PeerRequestException.class)
+    public ResponseEntity<Map<String, String>> handlePeerRequestException(PeerRequestException e) {
+        logger.warn("PeerRequestException ({}): {}", e.getStatus(), e.getMessage());
+        HttpStatus status = HttpStatus.resolve(e.getStatus());
+        ResponseEntity<Map<String, String>> response = buildErrorResponse(
+                status != null ? status : HttpStatus.BAD_GATEWAY, e.getMessage());
+        if (e.getRetryAfter() == null) {
+            return response;
+        }
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, e.getRetryAfter())
+                .body(response.getBody());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, String>> handleException(Exception e) {
         logger.error("Unhandled Exception: ", e);
@@ -0,0 +1,36 @@
+package com.drinkspeed.exception;
+
+/**
+ * 클러스터의 다른 노드 호출 실패
+ * 소유 노드가 4xx 로 거절하면 그 상태 코드를 그대로, 응답이 없거나 5xx 면 502 Bad Gateway 로 돌려준다.
+ */
+public class PeerRequestException extends RuntimeException {
+
+    public static final int BAD_GATEWAY = 502;
+
+    private final int status;
+    private final String retryAfter;
+
+    public PeerRequestException(int status, String message, String retryAfter) {
+        super(message);
+        this.status = status;
+        this.retryAfter = retryAfter;
+    }
+
+    public PeerRequestException(String message, Throwable cause) {
+        super(message, cause);
+        this.status = BAD_GATEWAY;
+        this.retryAfter = null;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * 소유 노드가 보낸 Retry-After 헤더 (없으면 null)
+     */
+    public String getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,18 @@
+package com.drinkspeed.exception;
+
+/**
+ * 요청 한도 초과 (429 Too Many Requests, Retry-After 헤더로 다시 시도할 수 있는 시각을 알린다)
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,10 @@
+package com.drinkspeed.persistence;
+
+/**
+ * 사용자별 클라이언트 이벤트 ID (기기마다 1, 2, ... 로 번호를 매겨도 다른 사용자와 겹치지 않는다)
+ *
+ * @param userId  사용자 ID
+ * @param eventId 기기가 매긴 이벤트 ID
+ */
+public record DrinkEventId(long userId, String eventId) {
+}
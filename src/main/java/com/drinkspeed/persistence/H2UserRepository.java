@@ -0,0 +1,236 @@
+package com.drinkspeed.persistence;
+
+import com.drinkspeed.domain.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 내장 H2 데이터베이스 사용자 저장소 (store.repository.type=h2)
+ *
+ * 조회는 메모리의 살아 있는 객체로 처리하고, save / delete 는 변경된 사용자 ID 만 표시한다.
+ * 별도 스레드가 flush-interval-ms 마다 표시된 사용자를 batch-size 단위 배치로 기록하므로
+ * 잔 추가 경로는 디스크를 기다리지 않는다. (write-behind)
+ * 행에는 UserSnapshot 직렬화 바이트를 그대로 저장하고, 기동 시 전체를 읽어 메모리에 올린다.
+ * format 열은 행의 UserSnapshot 형식이며, 이 열이 생기기 전에 기록된 행은 버전 바이트가 없는 이전 형식이다.
+ */
+@Component
+@ConditionalOnProperty(name = "store.repository.type", havingValue = "h2")
+public class H2UserRepository implements UserRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(H2UserRepository.class);
+
+    private static final String CREATE_TABLE_SQL =
+            "CREATE TABLE IF NOT EXISTS user_snapshots (id BIGINT PRIMARY KEY, data VARBINARY NOT NULL)";
+    private static final String ADD_FORMAT_COLUMN_SQL = "ALTER TABLE user_snapshots ADD COLUMN IF NOT EXISTS "
+            + "format TINYINT NOT NULL DEFAULT " + UserSnapshot.FORMAT_UNVERSIONED;
+    private static final String SELECT_ALL_SQL = "SELECT data, format FROM user_snapshots";
+    private static final String MERGE_SQL = "MERGE INTO user_snapshots (id, data, format) KEY (id) VALUES (?, ?, "
+            + UserSnapshot.FORMAT_VERSION + ")";
+    private static final String DELETE_SQL = "DELETE FROM user_snapshots WHERE id = ?";
+
+    private final UserSnapshotMapper userSnapshotMapper;
+    private final String url;
+    private final long flushIntervalMs;
+    private final int batchSize;
+
+    private final Map<Long, User> users = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final Set<Long> deleted = ConcurrentHashMap.newKeySet();
+
+    private Connection connection;
+    private ScheduledExecutorService flusher;
+
+    public H2UserRepository(UserSnapshotMapper userSnapshotMapper,
+            @Value("${store.repository.h2.url:jdbc:h2:file:./data/h2/users}") String url,
+            @Value("${store.repository.h2.flush-interval-ms:200}") long flushIntervalMs,
+            @Value("${store.repository.h2.batch-size:500}") int batchSize) {
+        this.userSnapshotMapper = userSnapshotMapper;
+        this.url = url;
+        this.flushIntervalMs = flushIntervalMs;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @PostConstruct
+    public synchronized void open() throws SQLException {
+        connection = DriverManager.getConnection(url, "sa", "");
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_TABLE_SQL);
+            statement.execute(ADD_FORMAT_COLUMN_SQL);
+            try (ResultSet rows = statement.executeQuery(SELECT_ALL_SQL)) {
+                while (rows.next()) {
+                    User user = userSnapshotMapper.fromSnapshot(deserialize(rows.getBytes(1), rows.getInt(2)));
+                    users.put(user.getId(), user);
+                }
+            }
+        }
+        connection.commit();
+
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "H2UserRepository-Flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        logger.info("Opened H2 user repository with {} users", users.size());
+    }
+
+    @Override
+    public User findById(Long userId) {
+        return users.get(userId);
+    }
+
+    @Override
+    public void save(User user) {
+        users.put(user.getId(), user);
+        dirty.add(user.getId());
+    }
+
+    @Override
+    public void delete(Long userId) {
+        users.remove(userId);
+        deleted.add(userId);
+    }
+
+    @Override
+    public Collection<User> findAll() {
+        return Collections.unmodifiableCollection(users.values());
+    }
+
+    @Override
+    public int count() {
+        return users.size();
+    }
+
+    /**
+     * 표시된 변경을 한 트랜잭션으로 기록 (삭제 먼저, 실패하면 다음 주기에 다시 시도)
+     */
+    public synchronized void flush() throws SQLException {
+        if (dirty.isEmpty() && deleted.isEmpty()) {
+            return;
+        }
+        List<Long> removedIds = drain(deleted);
+        List<Long> changedIds = drain(dirty);
+        try (PreparedStatement delete = connection.prepareStatement(DELETE_SQL);
+                PreparedStatement merge = connection.prepareStatement(MERGE_SQL)) {
+            int pending = 0;
+            for (Long userId : removedIds) {
+                delete.setLong(1, userId);
+                delete.addBatch();
+                if (++pending == batchSize) {
+                    delete.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                delete.executeBatch();
+                pending = 0;
+            }
+            for (Long userId : changedIds) {
+                // 표시 후 삭제된 사용자는 건너뛴다.
+                User user = users.get(userId);
+                if (user == null) {
+                    continue;
+                }
+                merge.setLong(1, userId);
+                merge.setBytes(2, serialize(userSnapshotMapper.toSnapshot(user)));
+                merge.addBatch();
+                if (++pending == batchSize) {
+                    merge.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                merge.executeBatch();
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            deleted.addAll(removedIds);
+            dirty.addAll(changedIds);
+            throw e;
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (SQLException | RuntimeException e) {
+            logger.error("Failed to flush user repository", e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        if (connection == null) {
+            return;
+        }
+        try {
+            flush();
+            connection.close();
+        } catch (SQLException e) {
+            logger.error("Failed to close H2 user repository", e);
+        }
+    }
+
+    private static List<Long> drain(Set<Long> ids) {
+        List<Long> drained = new ArrayList<>(ids.size());
+        for (Iterator<Long> it = ids.iterator(); it.hasNext();) {
+            drained.add(it.next());
+            it.remove();
+        }
+        return drained;
+    }
+
+    private static byte[] serialize(UserSnapshot snapshot) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            snapshot.writeTo(new DataOutputStream(bytes));
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static UserSnapshot deserialize(byte[] data, int format) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+            return format == UserSnapshot.FORMAT_VERSION ? UserSnapshot.readFrom(in)
+                    : UserSnapshot.readUnversioned(in, format);
+        } catch (IOException e) {
+            throw new UncheckedIOException("사용자 저장소 레코드를 읽지 못했습니다.", e);
+        }
+    }
+}
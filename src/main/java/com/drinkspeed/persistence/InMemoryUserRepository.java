@@ -0,0 +1,45 @@
+package com.drinkspeed.persistence;
+
+import com.drinkspeed.domain.User;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 메모리 사용자 저장소 (기본값, 재시작 시 복구는 이벤트 로그가 담당)
+ */
+@Component
+@ConditionalOnProperty(name = "store.repository.type", havingValue = "memory", matchIfMissing = true)
+public class InMemoryUserRepository implements UserRepository {
+
+    private final Map<Long, User> users = new ConcurrentHashMap<>();
+
+    @Override
+    public User findById(Long userId) {
+        return users.get(userId);
+    }
+
+    @Override
+    public void save(User user) {
+        users.put(user.getId(), user);
+    }
+
+    @Override
+    public void delete(Long userId) {
+        users.remove(userId);
+    }
+
+    @Override
+    public Collection<User> findAll() {
+        return Collections.unmodifiableCollection(users.values());
+    }
+
+    @Override
+    public int count() {
+        return users.size();
+    }
+}
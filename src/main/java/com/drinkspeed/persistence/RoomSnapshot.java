@@ -0,0 +1,21 @@
+package com.drinkspeed.persistence;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * 스냅샷 파일에 기록되는 방 정보
+ */
+public record RoomSnapshot(long id, String name, long createdAtMillis) {
+
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeLong(id);
+        out.writeUTF(name != null ? name : "");
+        out.writeLong(createdAtMillis);
+    }
+
+    static RoomSnapshot readFrom(DataInputStream in) throws IOException {
+        return new RoomSnapshot(in.readLong(), in.readUTF(), in.readLong());
+    }
+}
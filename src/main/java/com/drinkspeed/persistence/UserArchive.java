@@ -0,0 +1,248 @@
+package com.drinkspeed.persistence;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 메모리에서 내보낸(evict) 사용자를 보관하는 디스크 아카이브
+ *
+ * 하나의 추가 전용 파일에 [int magic][int UserSnapshot 형식] 머리말을 두고 [int 길이][UserSnapshot] 형식으로 기록하며,
+ * 메모리에는 사용자 ID -> 파일 위치 인덱스만 둔다. 기동 시 파일을 훑어 인덱스를 다시 만든다.
+ * 머리말이 없는 이전 파일은 기동 시 현재 형식으로 다시 쓴다.
+ * 내보내기는 보존 정책(store.retention.enabled)이 켜졌을 때만 일어나므로, 꺼져 있으면 파일을 열지 않는다.
+ */
+@Component
+public class UserArchive {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserArchive.class);
+
+    private static final String ARCHIVE_FILE = "users.archive";
+    private static final int ARCHIVE_MAGIC = 0x41525355; // "USRA"
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+
+    private final boolean enabled;
+    private final Path directory;
+
+    private final Map<Long, Long> offsets = new ConcurrentHashMap<>();
+    private FileChannel channel;
+
+    public UserArchive(@Value("${store.retention.enabled:false}") boolean retentionEnabled,
+            @Value("${store.retention.archive.enabled:true}") boolean enabled,
+            @Value("${store.retention.archive.directory:./data/archive}") String directory) {
+        this.enabled = retentionEnabled && enabled;
+        this.directory = Paths.get(directory);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(directory);
+        Path path = directory.resolve(ARCHIVE_FILE);
+        if (isUnversioned(path)) {
+            migrateUnversioned(path);
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        if (channel.size() < HEADER_BYTES) {
+            // 새 파일 (또는 머리말을 쓰다 멈춘 파일)
+            channel.truncate(0L);
+            writeFully(channel, header(), 0L);
+            channel.force(false);
+        } else {
+            ByteBuffer fileHeader = ByteBuffer.allocate(HEADER_BYTES);
+            channel.read(fileHeader, 0L);
+            int format = fileHeader.getInt(Integer.BYTES);
+            if (format != UserSnapshot.FORMAT_VERSION) {
+                throw new IOException("지원하지 않는 아카이브 형식입니다: " + format);
+            }
+        }
+
+        // 인덱스 재구성 (잘린 꼬리 레코드는 잘라낸다)
+        long position = HEADER_BYTES;
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(Integer.BYTES + Byte.BYTES + Long.BYTES);
+        while (position + header.capacity() <= size) {
+            header.clear();
+            channel.read(header, position);
+            header.flip();
+            int length = header.getInt();
+            header.get(); // UserSnapshot 형식 버전
+            long userId = header.getLong();
+            if (length <= 0 || position + Integer.BYTES + length > size) {
+                break;
+            }
+            offsets.put(userId, position);
+            position += Integer.BYTES + length;
+        }
+        if (position < size) {
+            logger.warn("Truncating {} bytes of incomplete archive records", size - position);
+            channel.truncate(position);
+        }
+        logger.info("Opened user archive with {} users", offsets.size());
+    }
+
+    /**
+     * 사용자 보관 (기록 후 fsync, 같은 ID 를 다시 보관하면 최신 기록이 우선)
+     */
+    public void write(UserSnapshot snapshot) {
+        try {
+            ByteBuffer buffer = encode(snapshot);
+            synchronized (this) {
+                long position = channel.size();
+                writeFully(channel, buffer, position);
+                channel.force(false);
+                offsets.put(snapshot.id(), position);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("사용자 아카이브 기록에 실패했습니다.", e);
+        }
+    }
+
+    /**
+     * 보관된 사용자 조회 (없으면 null)
+     */
+    public UserSnapshot find(long userId) {
+        Long position = offsets.get(userId);
+        if (position == null) {
+            return null;
+        }
+        try {
+            ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+            channel.read(length, position);
+            ByteBuffer payload = ByteBuffer.allocate(length.flip().getInt());
+            while (payload.hasRemaining()) {
+                if (channel.read(payload, position + Integer.BYTES + payload.position()) < 0) {
+                    throw new IOException("아카이브 레코드가 잘렸습니다: " + userId);
+                }
+            }
+            return UserSnapshot.readFrom(new DataInputStream(new ByteArrayInputStream(payload.array())));
+        } catch (IOException e) {
+            throw new UncheckedIOException("사용자 아카이브 조회에 실패했습니다.", e);
+        }
+    }
+
+    /**
+     * 머리말 없이 첫 레코드 길이로 시작하는 이전 파일인지 확인
+     */
+    private static boolean isUnversioned(Path path) throws IOException {
+        if (!Files.exists(path) || Files.size(path) == 0) {
+            return false;
+        }
+        if (Files.size(path) < Integer.BYTES) {
+            return true;
+        }
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(path))) {
+            return in.readInt() != ARCHIVE_MAGIC;
+        }
+    }
+
+    /**
+     * 버전 바이트가 없는 이전 레코드를 현재 형식으로 다시 쓴다. (잘린 꼬리 레코드는 버린다)
+     */
+    private void migrateUnversioned(Path path) throws IOException {
+        Path migrated = directory.resolve(ARCHIVE_FILE + ".tmp");
+        long remaining = Files.size(path);
+        int records = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16));
+                FileChannel out = FileChannel.open(migrated, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = writeFully(out, header(), 0L);
+            while (remaining >= Integer.BYTES) {
+                int length = in.readInt();
+                if (length <= 0 || Integer.BYTES + (long) length > remaining) {
+                    break;
+                }
+                byte[] payload = in.readNBytes(length);
+                UserSnapshot snapshot = UserSnapshot.readUnversioned(
+                        new DataInputStream(new ByteArrayInputStream(payload)), UserSnapshot.FORMAT_UNVERSIONED);
+                position += writeFully(out, encode(snapshot), position);
+                remaining -= Integer.BYTES + length;
+                records++;
+            }
+            out.force(false);
+        }
+        Files.move(migrated, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logger.info("Migrated {} unversioned user archive records", records);
+    }
+
+    private static ByteBuffer header() {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(ARCHIVE_MAGIC).putInt(UserSnapshot.FORMAT_VERSION).flip();
+        return header;
+    }
+
+    /**
+     * [int 길이][UserSnapshot] 레코드
+     */
+    private static ByteBuffer encode(UserSnapshot snapshot) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0);
+        snapshot.writeTo(out);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        buffer.putInt(0, buffer.capacity() - Integer.BYTES);
+        return buffer;
+    }
+
+    /**
+     * buffer 를 position 부터 끝까지 기록하고 기록한 바이트 수 반환
+     */
+    private static int writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int written = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+        return written;
+    }
+
+    public int size() {
+        return offsets.size();
+    }
+
+    public long sizeBytes() {
+        try {
+            return channel != null ? channel.size() : 0L;
+        } catch (IOException e) {
+            return -1L;
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.error("Failed to close user archive", e);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.drinkspeed.persistence;
+
+import com.drinkspeed.domain.AiMessageStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * 이벤트 로그에 기록되는 사용자 상태 변경 이벤트
+ *
+ * @param type            이벤트 종류
+ * @param userId          사용자 ID
+ * @param roomId          방 ID (없으면 -1)
+ * @param timestampMillis 발생 시각 (epoch millis)
+ * @param text            닉네임 / 술 종류 / AI 메시지 / 방 이름
+ * @param glassCount      잔 수 (DRINK 전용)
+ * @param status          AI 메시지 상태 (AI_MESSAGE 전용)
+ * @param eventId         클라이언트 이벤트 ID (DRINK_WITH_EVENT_ID 전용, 재시작 뒤에도 중복 제거하도록 함께 기록)
+ */
+public record UserEvent(Type type, long userId, long roomId, long timestampMillis, String text, double glassCount,
+        AiMessageStatus status, String eventId) {
+
+    public enum Type {
+        CREATED,
+        DRINK,
+        FINISHED,
+        AI_MESSAGE,
+        ROOM_CREATED,
+        ROOM_DROPPED,
+        EVICTED,
+        // 일괄 추가에서 eventId 가 있는 잔 (순번을 유지하도록 끝에 추가)
+        DRINK_WITH_EVENT_ID
+    }
+
+    public static UserEvent created(long userId, String userName, long roomId, long timestampMillis) {
+        return new UserEvent(Type.CREATED, userId, roomId, timestampMillis, userName, 0.0, null, null);
+    }
+
+    public static UserEvent drink(long userId, String drinkType, double glassCount, long timestampMillis) {
+        return new UserEvent(Type.DRINK, userId, -1L, timestampMillis, drinkType, glassCount, null, null);
+    }
+
+    public static UserEvent drink(long userId, String drinkType, double glassCount, long timestampMillis,
+            String eventId) {
+        if (eventId == null) {
+            return drink(userId, drinkType, glassCount, timestampMillis);
+        }
+        return new UserEvent(Type.DRINK_WITH_EVENT_ID, userId, -1L, timestampMillis, drinkType, glassCount, null,
+                eventId);
+    }
+
+    public static UserEvent finished(long userId, long timestampMillis) {
+        return new UserEvent(Type.FINISHED, userId, -1L, timestampMillis, null, 0.0, null, null);
+    }
+
+    public static UserEvent aiMessage(long userId, String aiMessage, AiMessageStatus status, long timestampMillis) {
+        return new UserEvent(Type.AI_MESSAGE, userId, -1L, timestampMillis, aiMessage, 0.0, status, null);
+    }
+
+    public static UserEvent roomCreated(long roomId, String roomName, long timestampMillis) {
+        return new UserEvent(Type.ROOM_CREATED, 0L, roomId, timestampMillis, roomName, 0.0, null, null);
+    }
+
+    public static UserEvent roomDropped(long roomId, long timestampMillis) {
+        return new UserEvent(Type.ROOM_DROPPED, 0L, roomId, timestampMillis, null, 0.0, null, null);
+    }
+
+    public static UserEvent evicted(long userId, long timestampMillis) {
+        return new UserEvent(Type.EVICTED, userId, -1L, timestampMillis, null, 0.0, null, null);
+    }
+
+    byte[] toBytes() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(type.ordinal());
+        out.writeLong(userId);
+        out.writeLong(roomId);
+        out.writeLong(timestampMillis);
+        switch (type) {
+            case CREATED -> out.writeUTF(text != null ? text : "");
+            case DRINK -> {
+                out.writeUTF(text);
+                out.writeDouble(glassCount);
+            }
+            case FINISHED -> {
+            }
+            case AI_MESSAGE -> {
+                out.writeUTF(text != null ? text : "");
+                out.writeByte(status.ordinal());
+            }
+            case ROOM_CREATED -> out.writeUTF(text != null ? text : "");
+            case ROOM_DROPPED, EVICTED -> {
+            }
+            case DRINK_WITH_EVENT_ID -> {
+                out.writeUTF(text);
+                out.writeDouble(glassCount);
+                out.writeUTF(eventId);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    static UserEvent fromBytes(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        Type type = Type.values()[in.readByte()];
+        long userId = in.readLong();
+        long roomId = in.readLong();
+        long timestampMillis = in.readLong();
+        return switch (type) {
+            case CREATED -> created(userId, in.readUTF(), roomId, timestampMillis);
+            case DRINK -> drink(userId, in.readUTF(), in.readDouble(), timestampMillis);
+            case FINISHED -> finished(userId, timestampMillis);
+            case AI_MESSAGE -> aiMessage(userId, in.readUTF(), AiMessageStatus.values()[in.readByte()],
+                    timestampMillis);
+            case ROOM_CREATED -> roomCreated(roomId, in.readUTF(), timestampMillis);
+            case ROOM_DROPPED -> roomDropped(roomId, timestampMillis);
+            case EVICTED -> evicted(userId, timestampMillis);
+            case DRINK_WITH_EVENT_ID -> drink(userId, in.readUTF(), in.readDouble(), timestampMillis, in.readUTF());
+        };
+    }
+}
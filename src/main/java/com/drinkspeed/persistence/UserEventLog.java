@@ -0,0 +1,448 @@
+package com.drinkspeed.persistence;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.StampedLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 인메모리 사용자 저장소용 추가 전용(append-only) 이벤트 로그 + 스냅샷
+ *
+ * - 이벤트는 메모리 버퍼에 모았다가 flush-interval-ms 마다 한 번에 기록하고 fsync 한다. (그룹 커밋)
+ * - 스냅샷 시 새 로그 세그먼트로 교체하고, 스냅샷 이전 세그먼트는 삭제한다.
+ *   배타 락은 세그먼트 교체 동안만 잡고, 사용자 복사는 락 밖에서 copy-on-write 로 한다. (SnapshotSource)
+ * - 이벤트는 상태를 바꾸기 전에 직렬화해 두므로, 직렬화에 실패하면 상태도 바뀌지 않는다.
+ * - 기동 시 스냅샷을 읽고 이후 세그먼트를 재생하여 상태를 복구한다.
+ *
+ * 레코드 형식: [int 길이][payload][int CRC32] — 잘린 꼬리 레코드는 재생 시 무시한다.
+ */
+@Component
+public class UserEventLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserEventLog.class);
+
+    private static final int SNAPSHOT_MAGIC = 0x47504853; // "GPHS"
+    private static final int SNAPSHOT_VERSION = 5;
+    // 사용자 레코드에 형식 버전 바이트가 없는 이전 형식 (읽기만 지원)
+    private static final int SNAPSHOT_VERSION_WITHOUT_USER_FORMAT = 4;
+    // 잔 이벤트 ID 가 없는 이전 형식 (읽기만 지원)
+    private static final int SNAPSHOT_VERSION_WITHOUT_EVENT_IDS = 3;
+    // 음주 속도 상태도 없는 이전 형식 (읽기만 지원)
+    private static final int SNAPSHOT_VERSION_WITHOUT_PACE = 2;
+    private static final String SNAPSHOT_FILE = "snapshot.bin";
+    private static final String SEGMENT_PREFIX = "events-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    /**
+     * 스냅샷 시점의 저장소 상태
+     */
+    public record StoreSnapshot(long lastUserId, List<RoomSnapshot> rooms, List<UserSnapshot> users,
+            List<DrinkEventId> drinkEventIds) {
+    }
+
+    /**
+     * 스냅샷으로 기록할 상태
+     *
+     * begin 은 세그먼트를 교체하는 배타 락 안에서 호출하므로 사용자 수와 무관하게 작은 상태(마지막 ID, 방)만 담는다.
+     * 사용자는 락 밖에서 users 로 복사하며, 그동안 기록되는 이벤트는 상태를 바꾸기 전에 beforeChange 로 넘긴다.
+     * 구현은 그때 아직 복사하지 않은 사용자를 먼저 복사해 모든 사용자를 세그먼트 교체 시점의 상태로 맞춘다.
+     * 잔 이벤트 ID 는 교체 뒤 것이 섞여도 재생 시 다시 기억할 뿐이므로 락 밖에서 그대로 복사한다.
+     */
+    public interface SnapshotSource {
+        StoreSnapshot begin();
+
+        void beforeChange(UserEvent event);
+
+        List<UserSnapshot> users();
+
+        List<DrinkEventId> drinkEventIds();
+    }
+
+    /**
+     * 복구 시 스냅샷/이벤트를 저장소에 반영하는 콜백
+     */
+    public interface ReplayHandler {
+        void restoreRoom(RoomSnapshot room);
+
+        void restore(UserSnapshot snapshot);
+
+        void restoreDrinkEventId(DrinkEventId id);
+
+        void apply(UserEvent event);
+    }
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long flushIntervalMs;
+
+    // 상태 변경(공유)과 스냅샷(배타)을 구분하는 락
+    private final StampedLock stateLock = new StampedLock();
+    private final Object bufferLock = new Object();
+    private final Object channelLock = new Object();
+
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream(64 * 1024);
+    private FileChannel channel;
+    private long segmentSeq;
+    private ScheduledExecutorService flusher;
+    // 스냅샷 중이면 그 대상 (배타 락 안에서만 바꾼다)
+    private volatile SnapshotSource snapshotting;
+
+    public UserEventLog(@Value("${store.wal.enabled:false}") boolean enabled,
+            @Value("${store.wal.directory:./data/wal}") String directory,
+            @Value("${store.wal.flush-interval-ms:50}") long flushIntervalMs) {
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 상태 변경과 이벤트 기록을 스냅샷에 대해 원자적으로 수행
+     */
+    public void record(UserEvent event, Runnable mutation) {
+        if (!enabled) {
+            mutation.run();
+            return;
+        }
+        byte[] encoded = encode(event);
+        long stamp = stateLock.readLock();
+        try {
+            SnapshotSource source = snapshotting;
+            if (source != null) {
+                source.beforeChange(event);
+            }
+            mutation.run();
+            append(encoded);
+        } finally {
+            stateLock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 여러 이벤트를 하나의 상태 변경으로 묶어 기록 (일괄 처리용)
+     */
+    public void record(List<UserEvent> events, Runnable mutation) {
+        if (!enabled) {
+            mutation.run();
+            return;
+        }
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream(events.size() * 64);
+        for (UserEvent event : events) {
+            encoded.writeBytes(encode(event));
+        }
+        long stamp = stateLock.readLock();
+        try {
+            SnapshotSource source = snapshotting;
+            if (source != null) {
+                for (UserEvent event : events) {
+                    source.beforeChange(event);
+                }
+            }
+            mutation.run();
+            append(encoded.toByteArray());
+        } finally {
+            stateLock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 스냅샷 + 이후 세그먼트 재생으로 상태 복구 후 새 세그먼트를 연다.
+     *
+     * @return 스냅샷에 기록된 마지막 사용자 ID
+     */
+    public long recover(ReplayHandler handler) throws IOException {
+        if (!enabled) {
+            return 0L;
+        }
+        long startedAt = System.nanoTime();
+        Files.createDirectories(directory);
+
+        long lastUserId = 0L;
+        long replayFrom = 0L;
+        int restoredUsers = 0;
+        Path snapshotPath = directory.resolve(SNAPSHOT_FILE);
+        if (Files.exists(snapshotPath)) {
+            try (DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(Files.newInputStream(snapshotPath), 1 << 16))) {
+                int version = in.readInt() == SNAPSHOT_MAGIC ? in.readInt() : -1;
+                if (version < SNAPSHOT_VERSION_WITHOUT_PACE || version > SNAPSHOT_VERSION) {
+                    throw new IOException("지원하지 않는 스냅샷 형식입니다: " + snapshotPath);
+                }
+                lastUserId = in.readLong();
+                replayFrom = in.readLong();
+                int restoredRooms = in.readInt();
+                for (int i = 0; i < restoredRooms; i++) {
+                    handler.restoreRoom(RoomSnapshot.readFrom(in));
+                }
+                restoredUsers = in.readInt();
+                for (int i = 0; i < restoredUsers; i++) {
+                    handler.restore(readUser(in, version));
+                }
+                if (version > SNAPSHOT_VERSION_WITHOUT_EVENT_IDS) {
+                    int drinkEventIds = in.readInt();
+                    for (int i = 0; i < drinkEventIds; i++) {
+                        handler.restoreDrinkEventId(new DrinkEventId(in.readLong(), in.readUTF()));
+                    }
+                }
+            }
+        }
+
+        long replayedEvents = 0L;
+        long nextSeq = replayFrom;
+        for (long seq : listSegments()) {
+            if (seq < replayFrom) {
+                continue;
+            }
+            Path segment = segmentPath(seq);
+            replayedEvents += replaySegment(segment, handler);
+            nextSeq = seq + 1;
+            if (Files.size(segment) == 0) {
+                Files.delete(segment);
+            }
+        }
+
+        synchronized (channelLock) {
+            openSegment(nextSeq);
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "UserEventLog-Flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+
+        logger.info("Recovered {} users from snapshot and replayed {} events in {} ms",
+                restoredUsers, replayedEvents, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        return lastUserId;
+    }
+
+    /**
+     * 스냅샷 기록
+     * 배타 락 안에서는 세그먼트 교체와 source.begin 만 하고, 사용자 복사와 파일 쓰기는 락 밖에서 수행한다.
+     */
+    public void snapshot(SnapshotSource source) throws IOException {
+        if (!enabled || channel == null) {
+            return;
+        }
+        long startedAt = System.nanoTime();
+        StoreSnapshot head;
+        long replayFrom;
+        long stamp = stateLock.writeLock();
+        try {
+            synchronized (channelLock) {
+                flushLocked();
+                channel.close();
+                openSegment(segmentSeq + 1);
+                replayFrom = segmentSeq;
+            }
+            head = source.begin();
+            snapshotting = source;
+        } finally {
+            stateLock.unlockWrite(stamp);
+        }
+        StoreSnapshot state;
+        try {
+            state = new StoreSnapshot(head.lastUserId(), head.rooms(), source.users(), source.drinkEventIds());
+        } finally {
+            snapshotting = null;
+        }
+
+        Path tmp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream stream = Channels.newOutputStream(out);
+            DataOutputStream data = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16));
+            data.writeInt(SNAPSHOT_MAGIC);
+            data.writeInt(SNAPSHOT_VERSION);
+            data.writeLong(state.lastUserId());
+            data.writeLong(replayFrom);
+            data.writeInt(state.rooms().size());
+            for (RoomSnapshot room : state.rooms()) {
+                room.writeTo(data);
+            }
+            data.writeInt(state.users().size());
+            for (UserSnapshot user : state.users()) {
+                user.writeTo(data);
+            }
+            data.writeInt(state.drinkEventIds().size());
+            for (DrinkEventId id : state.drinkEventIds()) {
+                data.writeLong(id.userId());
+                data.writeUTF(id.eventId());
+            }
+            data.flush();
+            out.force(true);
+        }
+        Files.move(tmp, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+
+        for (long seq : listSegments()) {
+            if (seq < replayFrom) {
+                Files.deleteIfExists(segmentPath(seq));
+            }
+        }
+        logger.info("Wrote snapshot of {} rooms, {} users in {} ms", state.rooms().size(), state.users().size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+    }
+
+    /**
+     * 버퍼에 쌓인 이벤트를 기록하고 fsync
+     */
+    public void flush() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        synchronized (channelLock) {
+            flushLocked();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        synchronized (channelLock) {
+            if (channel == null) {
+                return;
+            }
+            try {
+                flushLocked();
+                channel.close();
+            } catch (IOException e) {
+                logger.error("Failed to close user event log", e);
+            }
+        }
+    }
+
+    private static UserSnapshot readUser(DataInputStream in, int snapshotVersion) throws IOException {
+        if (snapshotVersion > SNAPSHOT_VERSION_WITHOUT_USER_FORMAT) {
+            return UserSnapshot.readFrom(in);
+        }
+        return UserSnapshot.readUnversioned(in, snapshotVersion == SNAPSHOT_VERSION_WITHOUT_PACE
+                ? UserSnapshot.FORMAT_UNVERSIONED_WITHOUT_PACE
+                : UserSnapshot.FORMAT_UNVERSIONED);
+    }
+
+    /**
+     * 레코드 형식으로 직렬화 ([int 길이][payload][int CRC32])
+     */
+    private static byte[] encode(UserEvent event) {
+        try {
+            byte[] payload = event.toBytes();
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            ByteBuffer record = ByteBuffer.allocate(payload.length + 2 * Integer.BYTES);
+            record.putInt(payload.length).put(payload).putInt((int) crc.getValue());
+            return record.array();
+        } catch (IOException e) {
+            throw new UncheckedIOException("이벤트 직렬화에 실패했습니다.", e);
+        }
+    }
+
+    private void append(byte[] records) {
+        synchronized (bufferLock) {
+            pending.writeBytes(records);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            logger.error("Failed to flush user event log", e);
+        }
+    }
+
+    private void flushLocked() throws IOException {
+        byte[] bytes;
+        synchronized (bufferLock) {
+            if (pending.size() == 0) {
+                return;
+            }
+            bytes = pending.toByteArray();
+            pending = new ByteArrayOutputStream(64 * 1024);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+    }
+
+    private void openSegment(long seq) throws IOException {
+        segmentSeq = seq;
+        channel = FileChannel.open(segmentPath(seq), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    private long replaySegment(Path path, ReplayHandler handler) throws IOException {
+        long events = 0L;
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+            CRC32 crc = new CRC32();
+            while (buffer.remaining() >= Integer.BYTES) {
+                int length = buffer.getInt();
+                if (length <= 0 || buffer.remaining() < length + Integer.BYTES) {
+                    logger.warn("Ignoring truncated record at end of {}", path.getFileName());
+                    break;
+                }
+                byte[] payload = new byte[length];
+                buffer.get(payload);
+                int checksum = buffer.getInt();
+                crc.reset();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    logger.warn("Ignoring corrupted record at end of {}", path.getFileName());
+                    break;
+                }
+                handler.apply(UserEvent.fromBytes(payload));
+                events++;
+            }
+        }
+        return events;
+    }
+
+    private List<Long> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(
+                            name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long seq) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, seq, SEGMENT_SUFFIX));
+    }
+}
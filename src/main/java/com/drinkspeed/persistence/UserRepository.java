@@ -0,0 +1,34 @@
+package com.drinkspeed.persistence;
+
+import com.drinkspeed.domain.User;
+
+import java.util.Collection;
+
+/**
+ * 사용자 저장소 (방에 속하지 않은 사용자, 방 사용자는 RoomService 파티션에 있다)
+ *
+ * 조회 결과는 메모리에 있는 살아 있는 객체이며, 상태를 바꾼 뒤에는 save 를 다시 호출해 저장소에 알린다.
+ * save / delete 는 디스크를 기다리지 않아야 한다. (잔 추가 경로에서 호출된다)
+ * 구현은 store.repository.type 으로 선택한다. (memory | h2)
+ */
+public interface UserRepository {
+
+    /**
+     * 사용자 조회 (없으면 null)
+     */
+    User findById(Long userId);
+
+    /**
+     * 사용자 등록 또는 변경 반영
+     */
+    void save(User user);
+
+    void delete(Long userId);
+
+    /**
+     * 모든 사용자 (읽기 전용 뷰)
+     */
+    Collection<User> findAll();
+
+    int count();
+}
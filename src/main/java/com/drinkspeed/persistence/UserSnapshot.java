@@ -0,0 +1,114 @@
+package com.drinkspeed.persistence;
+
+import com.drinkspeed.domain.AiMessageStatus;
+import com.drinkspeed.domain.DrinkPace;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 스냅샷 파일에 기록되는 사용자 상태 복사본
+ * 시각은 epoch millis, 값이 없으면 -1 로 기록한다.
+ * 레코드 맨 앞에 형식 버전 1바이트를 두고, 음주 속도 상태(pace)는 마지막에 기록한다. (없으면 null)
+ * 버전 바이트가 없는 이전 레코드는 담고 있는 파일/테이블이 알려 주는 형식으로 읽는다.
+ */
+public record UserSnapshot(long id, long roomId, String userName, long joinedAtMillis, long finishedAtMillis,
+        double totalSojuEquivalent, Map<String, Double> drinkCounts, int characterLevel, String aiMessage,
+        AiMessageStatus aiMessageStatus, DrinkPace.State pace) {
+
+    // 현재 레코드 형식 (레코드 맨 앞 1바이트)
+    static final int FORMAT_VERSION = 2;
+    // 버전 바이트 없이 끝에 음주 속도 상태 여부가 붙은 이전 레코드 (읽기만 지원)
+    static final int FORMAT_UNVERSIONED = 1;
+    // 버전 바이트도 음주 속도 상태도 없는 이전 레코드 (읽기만 지원)
+    static final int FORMAT_UNVERSIONED_WITHOUT_PACE = 0;
+
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeByte(FORMAT_VERSION);
+        out.writeLong(id);
+        out.writeLong(roomId);
+        out.writeUTF(userName != null ? userName : "");
+        out.writeLong(joinedAtMillis);
+        out.writeLong(finishedAtMillis);
+        out.writeDouble(totalSojuEquivalent);
+        out.writeShort(drinkCounts.size());
+        for (Map.Entry<String, Double> entry : drinkCounts.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeDouble(entry.getValue());
+        }
+        out.writeInt(characterLevel);
+        out.writeBoolean(aiMessage != null);
+        if (aiMessage != null) {
+            out.writeUTF(aiMessage);
+        }
+        out.writeByte(aiMessageStatus != null ? aiMessageStatus.ordinal() : -1);
+        out.writeBoolean(pace != null);
+        if (pace != null) {
+            out.writeShort(pace.timestamps().length);
+            for (int i = 0; i < pace.timestamps().length; i++) {
+                out.writeLong(pace.timestamps()[i]);
+                out.writeDouble(pace.amounts()[i]);
+            }
+            out.writeDouble(pace.decayed());
+            out.writeLong(pace.lastMillis());
+            out.writeDouble(pace.decayScore());
+        }
+    }
+
+    /**
+     * 형식 버전 바이트로 시작하는 레코드 읽기
+     */
+    static UserSnapshot readFrom(DataInputStream in) throws IOException {
+        int format = in.readUnsignedByte();
+        if (format != FORMAT_VERSION) {
+            throw new IOException("지원하지 않는 사용자 레코드 형식입니다: " + format);
+        }
+        return readFields(in, true);
+    }
+
+    /**
+     * 버전 바이트가 없는 이전 레코드 읽기
+     *
+     * @param format FORMAT_UNVERSIONED 또는 FORMAT_UNVERSIONED_WITHOUT_PACE
+     */
+    static UserSnapshot readUnversioned(DataInputStream in, int format) throws IOException {
+        if (format != FORMAT_UNVERSIONED && format != FORMAT_UNVERSIONED_WITHOUT_PACE) {
+            throw new IOException("지원하지 않는 사용자 레코드 형식입니다: " + format);
+        }
+        return readFields(in, format == FORMAT_UNVERSIONED);
+    }
+
+    private static UserSnapshot readFields(DataInputStream in, boolean withPace) throws IOException {
+        long id = in.readLong();
+        long roomId = in.readLong();
+        String userName = in.readUTF();
+        long joinedAtMillis = in.readLong();
+        long finishedAtMillis = in.readLong();
+        double totalSojuEquivalent = in.readDouble();
+        int drinkTypes = in.readShort();
+        Map<String, Double> drinkCounts = new LinkedHashMap<>();
+        for (int i = 0; i < drinkTypes; i++) {
+            drinkCounts.put(in.readUTF(), in.readDouble());
+        }
+        int characterLevel = in.readInt();
+        String aiMessage = in.readBoolean() ? in.readUTF() : null;
+        byte status = in.readByte();
+        DrinkPace.State pace = withPace && in.readBoolean() ? readPace(in) : null;
+        return new UserSnapshot(id, roomId, userName, joinedAtMillis, finishedAtMillis, totalSojuEquivalent, drinkCounts,
+                characterLevel, aiMessage, status >= 0 ? AiMessageStatus.values()[status] : null, pace);
+    }
+
+    private static DrinkPace.State readPace(DataInputStream in) throws IOException {
+        int records = in.readShort();
+        long[] timestamps = new long[records];
+        double[] amounts = new double[records];
+        for (int i = 0; i < records; i++) {
+            timestamps[i] = in.readLong();
+            amounts[i] = in.readDouble();
+        }
+        return new DrinkPace.State(timestamps, amounts, in.readDouble(), in.readLong(), in.readDouble());
+    }
+}
@@ -0,0 +1,71 @@
+package com.drinkspeed.persistence;
+
+import com.drinkspeed.domain.DrinkType;
+import com.drinkspeed.domain.User;
+import com.drinkspeed.util.DrinkTypeRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * User <-> UserSnapshot 변환 (스냅샷, 아카이브, 저장소 공용)
+ * 잔 수는 술 종류 코드로 기록하며, 설정에서 빠진 술 종류의 잔 수는 복원하지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserSnapshotMapper {
+
+    private final DrinkTypeRegistry drinkTypeRegistry;
+
+    public UserSnapshot toSnapshot(User user) {
+        Map<String, Double> drinkCounts = new LinkedHashMap<>();
+        for (DrinkType drinkType : drinkTypeRegistry.types()) {
+            drinkCounts.put(drinkType.code(), user.getDrinkCount(drinkType));
+        }
+        return new UserSnapshot(
+                user.getId(),
+                user.getRoomId() != null ? user.getRoomId() : -1L,
+                user.getUserName(),
+                user.getJoinedAtMillis(),
+                user.getFinishedAtMillis(),
+                user.getTotalSojuEquivalent(),
+                drinkCounts,
+                user.getCharacterLevel() != null ? user.getCharacterLevel() : -1,
+                user.getAiMessage(),
+                user.getAiMessageStatus(),
+                user.getPace().state());
+    }
+
+    public User fromSnapshot(UserSnapshot snapshot) {
+        User user = User.builder()
+                .id(snapshot.id())
+                .roomId(snapshot.roomId() >= 0 ? snapshot.roomId() : null)
+                .userName(snapshot.userName())
+                .joinedAt(toLocalDateTime(snapshot.joinedAtMillis()))
+                .finishedAt(snapshot.finishedAtMillis() >= 0 ? toLocalDateTime(snapshot.finishedAtMillis()) : null)
+                .characterLevel(snapshot.characterLevel() >= 0 ? snapshot.characterLevel() : null)
+                .aiMessage(snapshot.aiMessage())
+                .aiMessageStatus(snapshot.aiMessageStatus())
+                .build();
+        user.addTotalSojuEquivalent(snapshot.totalSojuEquivalent());
+        snapshot.drinkCounts().forEach((code, glassCount) -> {
+            DrinkType drinkType = drinkTypeRegistry.find(code);
+            if (drinkType != null) {
+                user.addDrinkCount(drinkType, glassCount);
+            }
+        });
+        if (snapshot.pace() != null) {
+            user.getPace().restore(snapshot.pace());
+        }
+        return user;
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
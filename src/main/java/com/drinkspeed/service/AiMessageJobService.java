@@ -0,0 +1,133 @@
+package com.drinkspeed.service;
+
+import com.drinkspeed.domain.AiMessageStatus;
+import com.drinkspeed.domain.User;
+import com.drinkspeed.event.AiMessagePartialEvent;
+import com.drinkspeed.event.AiMessageReadyEvent;
+import com.drinkspeed.persistence.UserEvent;
+import com.drinkspeed.persistence.UserEventLog;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class AiMessageJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiMessageJobService.class);
+
+    private final GeminiService geminiService;
+    private final TaskExecutor aiMessageExecutor;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserEventLog userEventLog;
+
+    // AI 메시지 생성 소요 시간 (Gemini 결과 / 기본 메시지 대체)
+    private final Timer doneTimer;
+    private final Timer fallbackTimer;
+
+    public AiMessageJobService(GeminiService geminiService,
+            @Qualifier("aiMessageExecutor") TaskExecutor aiMessageExecutor,
+            ApplicationEventPublisher eventPublisher,
+            UserEventLog userEventLog,
+            MeterRegistry meterRegistry) {
+        this.geminiService = geminiService;
+        this.aiMessageExecutor = aiMessageExecutor;
+        this.eventPublisher = eventPublisher;
+        this.userEventLog = userEventLog;
+        this.doneTimer = Timer.builder("ai.message.generation").tag("outcome", "done").register(meterRegistry);
+        this.fallbackTimer = Timer.builder("ai.message.generation").tag("outcome", "fallback").register(meterRegistry);
+    }
+
+    /**
+     * AI 메시지 생성 작업 등록
+     * 큐가 가득 찬 경우 즉시 기본 메시지로 대체한다.
+     */
+    public void submit(User user) {
+        user.setAiMessage(null);
+        user.setAiMessageStatus(AiMessageStatus.QUEUED);
+        try {
+            aiMessageExecutor.execute(() -> generateAndSaveAiMessage(user));
+        } catch (TaskRejectedException e) {
+            logger.warn("AI message queue is full, using fallback message for user: {}", user.getUserName());
+            saveFallbackMessage(user);
+        }
+    }
+
+    /**
+     * Gemini 호출 없이 기본 메시지 저장 (AI 요청 한도 초과)
+     */
+    public void submitFallback(User user) {
+        saveFallbackMessage(user);
+    }
+
+    /**
+     * AI 메시지 생성 및 저장 (워커 스레드에서 실행)
+     */
+    void generateAndSaveAiMessage(User user) {
+        if (user.getFinishedAt() == null)
+            return;
+
+        user.setAiMessageStatus(AiMessageStatus.RUNNING);
+        long startedAt = System.nanoTime();
+        try {
+            int level = user.getCharacterLevel() != null ? user.getCharacterLevel() : 0;
+            String message = geminiService.isStreamingEnabled()
+                    ? geminiService.streamDrinkingResultMessage(user.getUserName(), durationSeconds(user),
+                            user.getTotalSojuEquivalent(), level, partial -> publishPartial(user, partial))
+                    : geminiService.requestDrinkingResultMessage(user.getUserName(), durationSeconds(user),
+                            user.getTotalSojuEquivalent(), level);
+
+            if (message == null) {
+                saveFallbackMessage(user);
+                fallbackTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                return;
+            }
+            saveMessage(user, message, AiMessageStatus.DONE);
+            doneTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            logger.debug("Async AI message generated and saved for user: {}", user.getUserName());
+            publishReady(user);
+        } catch (Exception e) {
+            logger.error("Error generating AI message asynchronously", e);
+            saveFallbackMessage(user);
+            fallbackTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void saveFallbackMessage(User user) {
+        saveMessage(user, geminiService.generateFallbackMessage(user.getUserName(), durationSeconds(user)),
+                AiMessageStatus.FALLBACK);
+        publishReady(user);
+    }
+
+    private void saveMessage(User user, String message, AiMessageStatus status) {
+        userEventLog.record(UserEvent.aiMessage(user.getId(), message, status, System.currentTimeMillis()), () -> {
+            user.setAiMessage(message);
+            user.setAiMessageStatus(status);
+        });
+    }
+
+    /**
+     * 스트리밍 중인 부분 텍스트 반영 (이벤트 로그에는 최종 메시지만 기록)
+     */
+    private void publishPartial(User user, String partialMessage) {
+        user.setAiMessage(partialMessage);
+        user.setAiMessageStatus(AiMessageStatus.STREAMING);
+        eventPublisher.publishEvent(new AiMessagePartialEvent(user.getId(), partialMessage));
+    }
+
+    private void publishReady(User user) {
+        eventPublisher.publishEvent(new AiMessageReadyEvent(user.getId(), user.getAiMessage(), user.getAiMessageStatus()));
+    }
+
+    private int durationSeconds(User user) {
+        return (int) Duration.between(user.getJoinedAt(), user.getFinishedAt()).getSeconds();
+    }
+}
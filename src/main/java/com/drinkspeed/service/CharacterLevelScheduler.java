@@ -0,0 +1,97 @@
+package com.drinkspeed.service;
+
+import com.drinkspeed.domain.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * 캐릭터 레벨 주기적 재계산
+ *
+ * 시속은 잔을 추가하지 않아도 시간이 지나면 떨어지므로, 진행 중인 사용자의 레벨을 주기적으로 다시 계산한다.
+ * 레벨이 그대로인 사용자도 시속 분포(PercentileService)에는 현재 시속을 다시 반영한다.
+ * 종료된 사용자는 시속이 고정되어 대상이 아니므로 비용은 진행 중인 사용자 수에 비례한다.
+ * 사용자가 batch-size 보다 많으면 묶음 단위로 나누어 taskExecutor 에서 병렬로 처리한다.
+ */
+@Service
+public class CharacterLevelScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(CharacterLevelScheduler.class);
+
+    private final UserService userService;
+    private final PercentileService percentileService;
+    private final Executor taskExecutor;
+    private final boolean enabled;
+    private final int batchSize;
+
+    public CharacterLevelScheduler(UserService userService, PercentileService percentileService,
+            @Qualifier("taskExecutor") Executor taskExecutor,
+            @Value("${scheduler.level-recompute.enabled:true}") boolean enabled,
+            @Value("${scheduler.level-recompute.batch-size:1000}") int batchSize) {
+        this.userService = userService;
+        this.percentileService = percentileService;
+        this.taskExecutor = taskExecutor;
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Scheduled(fixedDelayString = "${scheduler.level-recompute.interval-ms:30000}",
+            initialDelayString = "${scheduler.level-recompute.interval-ms:30000}")
+    public void recompute() {
+        if (!enabled) {
+            return;
+        }
+        List<User> users = userService.getActiveUsers();
+        long now = System.currentTimeMillis();
+
+        int changed;
+        if (users.size() <= batchSize) {
+            changed = recomputeBatch(users, now);
+        } else {
+            List<CompletableFuture<Integer>> batches = new ArrayList<>();
+            for (int from = 0; from < users.size(); from += batchSize) {
+                List<User> batch = users.subList(from, Math.min(from + batchSize, users.size()));
+                batches.add(submit(batch, now));
+            }
+            changed = 0;
+            for (CompletableFuture<Integer> batch : batches) {
+                changed += batch.join();
+            }
+        }
+
+        if (changed > 0) {
+            logger.debug("Recomputed levels of {} active users ({} changed)", users.size(), changed);
+        }
+    }
+
+    private CompletableFuture<Integer> submit(List<User> batch, long now) {
+        try {
+            return CompletableFuture.supplyAsync(() -> recomputeBatch(batch, now), taskExecutor);
+        } catch (TaskRejectedException e) {
+            // 작업 큐가 가득 차면 스케줄러 스레드에서 직접 처리
+            return CompletableFuture.completedFuture(recomputeBatch(batch, now));
+        }
+    }
+
+    private int recomputeBatch(List<User> batch, long now) {
+        int changed = 0;
+        for (User user : batch) {
+            if (userService.refreshCharacterLevel(user, now)) {
+                // 레벨이 바뀌면 랭킹 변경 이벤트로 분포에도 반영된다.
+                changed++;
+            } else {
+                percentileService.resample(user);
+            }
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,379 @@
+package com.drinkspeed.service;
+
+import com.drinkspeed.domain.RankingSort;
+import com.drinkspeed.dto.DrinkBatchResponse;
+import com.drinkspeed.dto.DrinkEntry;
+import com.drinkspeed.dto.RankingResponse;
+import com.drinkspeed.exception.PeerRequestException;
+import com.drinkspeed.util.ConsistentHashRing;
+import com.drinkspeed.util.SnowflakeIdGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * 여러 노드로 나눠 실행할 때의 소유권, ID 발급, 노드 간 호출
+ *
+ * 사용자와 방은 ID 의 일관 해시로 소유 노드가 정해진다. 새 ID 는 링에서 자기 노드에 배정되는 값이
+ * 나올 때까지 발급하므로, 요청을 받은 노드(방 사용자는 방의 소유 노드)가 곧 소유 노드가 된다.
+ * 전체 랭킹은 노드마다 상위 k 명을 받아 병합한다.
+ * 노드 목록은 설정으로 고정하며, 목록이 바뀌어도 이미 만든 사용자를 옮기지는 않는다.
+ * 노드 간 요청은 cluster.secret 이 있으면 X-Cluster-Secret 으로, 없으면 cluster.nodes 주소로 확인한다.
+ */
+@Service
+public class ClusterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterService.class);
+
+    /**
+     * 다른 노드가 전달한 요청 표시 (다시 전달하지 않는다)
+     */
+    public static final String FORWARDED_HEADER = "X-Cluster-Forwarded";
+
+    /**
+     * 노드 간 공유 비밀 (cluster.secret)
+     */
+    public static final String SECRET_HEADER = "X-Cluster-Secret";
+
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    private final boolean enabled;
+    private final int nodeId;
+    private final List<String> nodeUrls;
+    private final int topK;
+    private final int maxIdAttempts;
+    private final ConsistentHashRing ring;
+    private final SnowflakeIdGenerator idGenerator;
+    private final OkHttpClient client;
+    private final ObjectMapper objectMapper;
+    private final String secret;
+    private final Set<InetAddress> nodeAddresses;
+
+    public ClusterService(@Value("${cluster.enabled:false}") boolean enabled,
+            @Value("${cluster.node-id:0}") int nodeId,
+            @Value("${cluster.nodes:}") List<String> nodeUrls,
+            @Value("${cluster.virtual-nodes:128}") int virtualNodes,
+            @Value("${cluster.ranking.top-k:100}") int topK,
+            @Value("${cluster.request-timeout-ms:2000}") long requestTimeoutMs,
+            @Value("${cluster.secret:}") String secret,
+            ObjectMapper objectMapper) {
+        this.enabled = enabled;
+        this.nodeId = nodeId;
+        this.nodeUrls = List.copyOf(nodeUrls);
+        this.topK = topK;
+        this.objectMapper = objectMapper;
+        this.secret = secret;
+        if (enabled && (nodeUrls.isEmpty() || nodeId < 0 || nodeId >= nodeUrls.size()
+                || nodeUrls.size() > SnowflakeIdGenerator.MAX_NODES)) {
+            throw new IllegalStateException("cluster.node-id 는 cluster.nodes 의 위치여야 하고 노드는 "
+                    + SnowflakeIdGenerator.MAX_NODES + "개 이하여야 합니다.");
+        }
+        int nodeCount = enabled ? nodeUrls.size() : 1;
+        // 한 번에 자기 노드 ID 가 나올 확률은 약 1/N 이므로 충분히 넉넉하게 잡는다.
+        this.maxIdAttempts = 64 * nodeCount;
+        this.ring = new ConsistentHashRing(nodeCount, virtualNodes);
+        this.idGenerator = new SnowflakeIdGenerator(enabled ? nodeId : 0);
+        this.nodeAddresses = enabled && secret.isEmpty() ? resolveNodeAddresses(nodeUrls) : Set.of();
+        // 단일 노드에서는 노드 간 호출이 없으므로 OkHttp 를 올리지 않는다.
+        this.client = enabled
+                ? new OkHttpClient.Builder()
+                        .connectTimeout(requestTimeoutMs, TimeUnit.MILLISECONDS)
+                        .readTimeout(requestTimeoutMs, TimeUnit.MILLISECONDS)
+                        .build()
+                : null;
+        if (enabled) {
+            logger.info("Cluster mode: node {} of {} ({})", nodeId, nodeUrls.size(), nodeUrls.get(nodeId));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int nodeId() {
+        return nodeId;
+    }
+
+    public OkHttpClient httpClient() {
+        return client;
+    }
+
+    /**
+     * 다른 노드가 보낸 요청인지 (클러스터 모드에서 비밀이 맞거나, 비밀이 없으면 노드 주소에서 온 요청)
+     * 클라이언트가 X-Cluster-Forwarded 만 붙인 요청은 일반 요청으로 취급한다.
+     */
+    public boolean isPeerRequest(HttpServletRequest request) {
+        if (!enabled || request.getHeader(FORWARDED_HEADER) == null) {
+            return false;
+        }
+        if (!secret.isEmpty()) {
+            String given = request.getHeader(SECRET_HEADER);
+            return given != null && MessageDigest.isEqual(
+                    secret.getBytes(StandardCharsets.UTF_8), given.getBytes(StandardCharsets.UTF_8));
+        }
+        try {
+            return nodeAddresses.contains(InetAddress.getByName(request.getRemoteAddr()));
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 노드 간 요청 표시 헤더 추가
+     */
+    public Request.Builder markForwarded(Request.Builder builder) {
+        builder.header(FORWARDED_HEADER, Integer.toString(nodeId));
+        if (!secret.isEmpty()) {
+            builder.header(SECRET_HEADER, secret);
+        }
+        return builder;
+    }
+
+    /**
+     * 키(사용자 / 방 ID)를 이 노드가 소유하는지 (클러스터 모드가 아니면 항상 true)
+     */
+    public boolean isLocal(long key) {
+        return !enabled || ring.ownerOf(key) == nodeId;
+    }
+
+    /**
+     * 키를 소유하는 노드의 기본 URL
+     */
+    public String ownerUrl(long key) {
+        return nodeUrls.get(ring.ownerOf(key));
+    }
+
+    /**
+     * 이 노드가 소유하는 새 ID
+     */
+    public long nextOwnedId() {
+        for (int attempt = 0; attempt < maxIdAttempts; attempt++) {
+            long id = idGenerator.nextId();
+            if (isLocal(id)) {
+                return id;
+            }
+        }
+        throw new IllegalStateException("이 노드에 배정되는 ID 를 발급하지 못했습니다.");
+    }
+
+    /**
+     * 전체 랭킹 병합 시 노드마다 받아오는 최대 인원 (cluster.ranking.top-k)
+     */
+    public int rankingTopK() {
+        return topK;
+    }
+
+    /**
+     * 전체 랭킹 (노드별 상위 offset + limit 명을 모아 병합, 최대 cluster.ranking.top-k 명)
+     *
+     * @param local 이 노드의 상위 k 명
+     */
+    public List<RankingResponse> globalRankings(RankingSort sort, int offset, int limit,
+            IntFunction<List<RankingResponse>> local) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("offset, limit 은 0 이상이어야 합니다.");
+        }
+        int k = (int) Math.min((long) offset + limit, topK);
+        List<CompletableFuture<List<RankingResponse>>> partials = new ArrayList<>(nodeUrls.size());
+        for (int node = 0; node < nodeUrls.size(); node++) {
+            if (node != nodeId) {
+                partials.add(fetchTopRankings(node, sort, k));
+            }
+        }
+
+        List<RankingResponse> merged = new ArrayList<>(local.apply(k));
+        for (CompletableFuture<List<RankingResponse>> partial : partials) {
+            merged.addAll(partial.join());
+        }
+        merged.sort(mergeOrder(sort));
+
+        int from = Math.min(offset, Math.min(k, merged.size()));
+        int to = Math.min(k, merged.size());
+        List<RankingResponse> page = new ArrayList<>(merged.subList(from, to));
+        for (int i = 0; i < page.size(); i++) {
+            page.get(i).setRank(from + i + 1);
+        }
+        return page;
+    }
+
+    /**
+     * 일괄 잔 추가를 소유 노드별로 나눠 반영 (노드마다 따로 반영되므로 노드 간 원자성은 없다)
+     * 다른 노드가 돌려준 사용자는 User 로 되읽으면 술 종류별 잔 수가 빠지므로 JSON 그대로 합친다.
+     *
+     * @param local 이 노드 소유 항목 반영
+     * @return DrinkBatchResponse 와 같은 필드의 응답 본문
+     */
+    public Map<String, Object> addDrinks(List<DrinkEntry> entries,
+            Function<List<DrinkEntry>, DrinkBatchResponse> local) {
+        Map<Integer, List<DrinkEntry>> byNode = new LinkedHashMap<>();
+        for (DrinkEntry entry : entries != null ? entries : List.<DrinkEntry>of()) {
+            if (entry.getUserId() == null) {
+                throw new IllegalArgumentException("userId 는 필수입니다.");
+            }
+            byNode.computeIfAbsent(ring.ownerOf(entry.getUserId()), node -> new ArrayList<>()).add(entry);
+        }
+
+        List<CompletableFuture<Map<String, Object>>> remote = new ArrayList<>();
+        for (Map.Entry<Integer, List<DrinkEntry>> group : byNode.entrySet()) {
+            if (group.getKey() != nodeId) {
+                remote.add(post(group.getKey(), "/api/drinks/batch", Map.of("drinks", group.getValue()),
+                        new TypeReference<>() {
+                        }));
+            }
+        }
+
+        int applied = 0;
+        int duplicates = 0;
+        List<Object> users = new ArrayList<>();
+        List<DrinkEntry> localEntries = byNode.get(nodeId);
+        if (localEntries != null || remote.isEmpty()) {
+            DrinkBatchResponse response = local.apply(localEntries != null ? localEntries : entries);
+            applied += response.getApplied();
+            duplicates += response.getDuplicates();
+            users.addAll(response.getUsers());
+        }
+        for (CompletableFuture<Map<String, Object>> future : remote) {
+            Map<String, Object> response;
+            try {
+                response = future.join();
+            } catch (CompletionException e) {
+                throw (RuntimeException) e.getCause();
+            }
+            applied += ((Number) response.get("applied")).intValue();
+            duplicates += ((Number) response.get("duplicates")).intValue();
+            users.addAll((List<?>) response.get("users"));
+        }
+
+        Map<String, Object> merged = new LinkedHashMap<>();
+        merged.put("applied", applied);
+        merged.put("duplicates", duplicates);
+        merged.put("users", users);
+        return merged;
+    }
+
+    /**
+     * 다른 노드의 상위 k 명 (실패하면 빈 목록으로 두고 나머지 노드로 랭킹을 만든다)
+     */
+    private CompletableFuture<List<RankingResponse>> fetchTopRankings(int node, RankingSort sort, int k) {
+        Request request = markForwarded(new Request.Builder())
+                .url(nodeUrls.get(node) + "/internal/cluster/rankings?sort=" + sort.name().toLowerCase()
+                        + "&limit=" + k)
+                .get()
+                .build();
+        return send(node, request, new TypeReference<List<RankingResponse>>() {
+        }).exceptionally(e -> {
+            logger.warn("Skipping rankings of node {}: {}", node, e.getMessage());
+            return List.of();
+        });
+    }
+
+    private <T> CompletableFuture<T> post(int node, String path, Object body, TypeReference<T> type) {
+        try {
+            Request request = markForwarded(new Request.Builder())
+                    .url(nodeUrls.get(node) + path)
+                    .post(RequestBody.create(objectMapper.writeValueAsBytes(body), JSON))
+                    .build();
+            return send(node, request, type);
+        } catch (IOException e) {
+            throw new IllegalStateException("노드 간 요청 직렬화에 실패했습니다.", e);
+        }
+    }
+
+    /**
+     * 비동기 호출 (실패는 PeerRequestException 으로 완료, 4xx 는 소유 노드의 상태 코드와 메시지를 그대로 담는다)
+     */
+    private <T> CompletableFuture<T> send(int node, Request request, TypeReference<T> type) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        client.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                future.completeExceptionally(new PeerRequestException("노드 " + node + " 호출에 실패했습니다.", e));
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    String body = response.body() != null ? response.body().string() : "";
+                    if (response.code() >= 400 && response.code() < 500) {
+                        future.completeExceptionally(new PeerRequestException(response.code(), errorMessage(body),
+                                response.header("Retry-After")));
+                    } else if (!response.isSuccessful()) {
+                        future.completeExceptionally(new PeerRequestException(PeerRequestException.BAD_GATEWAY,
+                                "노드 " + node + " 가 " + response.code() + " 로 응답했습니다.", null));
+                    } else {
+                        future.complete(objectMapper.readValue(body, type));
+                    }
+                } catch (IOException e) {
+                    future.completeExceptionally(new PeerRequestException("노드 " + node + " 응답을 읽지 못했습니다.", e));
+                }
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 소유 노드가 돌려준 오류 응답의 message (GlobalExceptionHandler 형식)
+     */
+    private String errorMessage(String body) {
+        try {
+            Object message = objectMapper.readValue(body, Map.class).get("message");
+            return message != null ? message.toString() : body;
+        } catch (IOException e) {
+            return body;
+        }
+    }
+
+    /**
+     * cluster.nodes 호스트의 주소 (해석하지 못한 노드는 경고만 남긴다)
+     */
+    private static Set<InetAddress> resolveNodeAddresses(List<String> nodeUrls) {
+        Set<InetAddress> addresses = new HashSet<>();
+        for (String nodeUrl : nodeUrls) {
+            try {
+                addresses.addAll(List.of(InetAddress.getAllByName(URI.create(nodeUrl.trim()).getHost())));
+            } catch (UnknownHostException | IllegalArgumentException e) {
+                logger.warn("Cannot resolve cluster node {}: {}", nodeUrl, e.getMessage());
+            }
+        }
+        return Set.copyOf(addresses);
+    }
+
+    private static Comparator<RankingResponse> mergeOrder(RankingSort sort) {
+        Comparator<RankingResponse> byScore = switch (sort) {
+            case TOTAL -> Comparator.comparing(RankingResponse::getTotalSojuEquivalent);
+            case PACE -> Comparator.comparing(RankingResponse::getPace);
+            case RECENT -> Comparator.comparing(RankingResponse::getRecentGlassPerHour);
+        };
+        return byScore.reversed().thenComparing(RankingResponse::getUserId);
+    }
+}
@@ -0,0 +1,58 @@
+package com.drinkspeed.service;
+
+import com.drinkspeed.persistence.DrinkEventId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 클라이언트 이벤트 ID 중복 제거 (사용자 ID + eventId 기준)
+ * 최근 max-entries 개의 ID 만 기억한다. (오프라인 기기의 재전송 구간을 덮을 만큼 크게 잡는다)
+ * 동시에 온 같은 ID 는 markSeen 으로 하나만 통과시키고, 기록에 실패하면 unmark 로 되돌린다.
+ * ID 는 이벤트 로그의 잔 기록과 스냅샷에 함께 남아 재시작 뒤 복구 시 다시 채워진다.
+ */
+@Component
+public class DrinkEventDeduplicator {
+
+    private final Map<DrinkEventId, Boolean> seen;
+
+    public DrinkEventDeduplicator(@Value("${drinks.batch.dedupe-max-entries:100000}") int maxEntries) {
+        this.seen = new LinkedHashMap<>(1024, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<DrinkEventId, Boolean> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * 처음 보는 ID 이면 기록하고 true, 이미 처리된 ID 이면 false
+     */
+    public boolean markSeen(DrinkEventId id) {
+        synchronized (seen) {
+            return seen.putIfAbsent(id, Boolean.TRUE) == null;
+        }
+    }
+
+    /**
+     * 반영하지 못한 ID 를 잊는다. (재전송하면 다시 반영되도록)
+     */
+    public void unmark(DrinkEventId id) {
+        synchronized (seen) {
+            seen.remove(id);
+        }
+    }
+
+    /**
+     * 기억하는 ID (오래된 순, 스냅샷용 복사본)
+     */
+    public List<DrinkEventId> recent() {
+        synchronized (seen) {
+            return new ArrayList<>(seen.keySet());
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.drinkspeed.service;
+
+import com.drinkspeed.util.CircuitBreaker;
+import com.drinkspeed.util.LatencyTracker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Gemini 호출 보호 장치
+ * 서킷 브레이커, 지연 백분위 기반 적응형 타임아웃, 지터를 둔 제한적 재시도(재시도 예산),
+ * 동시 호출 수 제한을 한곳에서 적용한다.
+ * 타임아웃된 호출은 실제 지연을 알 수 없으므로 그 타임아웃 값을 지연 표본으로 기록해(중도 절단 표본)
+ * 느려진 상황에서 타임아웃이 다시 늘어날 수 있게 하고, 반개방 시험 호출은 최대 타임아웃으로 보낸다.
+ * 배치 호출은 응답이 길어 단일 호출과 지연 분포가 다르므로 지연 추적기와 타임아웃 범위를 따로 둔다.
+ * 스트리밍 호출은 전체 시간이 생성 길이에 따라 달라지므로 전체 지연을 기록하지 않고,
+ * 호출 쪽이 알려 주는 첫 텍스트까지의 시간으로 첫 응답 타임아웃을 정한다.
+ */
+@Component
+public class GeminiCallGuard {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeminiCallGuard.class);
+
+    /**
+     * 보호 대상 호출 (timeoutMs 안에 끝나야 한다)
+     */
+    @FunctionalInterface
+    public interface GuardedCall<T> {
+        T call(long timeoutMs) throws IOException, RetryableException;
+    }
+
+    /**
+     * 재시도할 가치가 있는 실패 (429, 5xx 등)
+     */
+    public static class RetryableException extends Exception {
+        public RetryableException(String message) {
+            super(message);
+        }
+    }
+
+    private final CircuitBreaker circuitBreaker;
+    private final LatencyTracker latencyTracker;
+    private final LatencyTracker batchLatencyTracker;
+    private final LatencyTracker streamFirstByteTracker;
+    private final Semaphore concurrencyLimit;
+    private final int maxConcurrentCalls;
+    private final long acquireTimeoutMs;
+    private final int maxRetries;
+    private final long baseBackoffMs;
+    private final double retryBudgetRatio;
+    private final double retryBudgetMax;
+
+    private double retryBudget;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder rejectedOpen = new LongAdder();
+    private final LongAdder rejectedConcurrency = new LongAdder();
+
+    public GeminiCallGuard(
+            @Value("${gemini.resilience.failure-threshold:5}") int failureThreshold,
+            @Value("${gemini.resilience.open-duration-ms:30000}") long openDurationMs,
+            @Value("${gemini.resilience.timeout-percentile:0.99}") double timeoutPercentile,
+            @Value("${gemini.resilience.timeout-multiplier:2.0}") double timeoutMultiplier,
+            @Value("${gemini.resilience.min-timeout-ms:2000}") long minTimeoutMs,
+            @Value("${gemini.resilience.max-timeout-ms:30000}") long maxTimeoutMs,
+            @Value("${gemini.resilience.max-concurrent-calls:8}") int maxConcurrentCalls,
+            @Value("${gemini.resilience.acquire-timeout-ms:2000}") long acquireTimeoutMs,
+            @Value("${gemini.resilience.max-retries:2}") int maxRetries,
+            @Value("${gemini.resilience.base-backoff-ms:200}") long baseBackoffMs,
+            @Value("${gemini.resilience.retry-budget-ratio:0.2}") double retryBudgetRatio,
+            @Value("${gemini.resilience.batch.min-timeout-ms:5000}") long batchMinTimeoutMs,
+            @Value("${gemini.resilience.batch.max-timeout-ms:60000}") long batchMaxTimeoutMs,
+            @Value("${gemini.resilience.stream.min-first-byte-timeout-ms:2000}") long streamMinFirstByteTimeoutMs,
+            @Value("${gemini.resilience.stream.max-first-byte-timeout-ms:15000}") long streamMaxFirstByteTimeoutMs) {
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openDurationMs);
+        this.latencyTracker = new LatencyTracker(256, timeoutPercentile, timeoutMultiplier, minTimeoutMs,
+                maxTimeoutMs, 20);
+        this.batchLatencyTracker = new LatencyTracker(64, timeoutPercentile, timeoutMultiplier, batchMinTimeoutMs,
+                batchMaxTimeoutMs, 10);
+        this.streamFirstByteTracker = new LatencyTracker(256, timeoutPercentile, timeoutMultiplier,
+                streamMinFirstByteTimeoutMs, streamMaxFirstByteTimeoutMs, 20);
+        this.concurrencyLimit = new Semaphore(maxConcurrentCalls);
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.maxRetries = maxRetries;
+        this.baseBackoffMs = baseBackoffMs;
+        this.retryBudgetRatio = retryBudgetRatio;
+        this.retryBudgetMax = Math.max(1.0, maxConcurrentCalls * retryBudgetRatio * 10);
+        this.retryBudget = retryBudgetMax;
+    }
+
+    /**
+     * 보호 장치를 거쳐 호출, 거절되거나 재시도까지 실패하면 null 반환
+     */
+    public <T> T execute(GuardedCall<T> call) {
+        return execute(latencyTracker, true, call);
+    }
+
+    /**
+     * 배치 호출 (배치 전용 지연 추적기와 타임아웃 사용)
+     */
+    public <T> T executeBatch(GuardedCall<T> call) {
+        return execute(batchLatencyTracker, true, call);
+    }
+
+    /**
+     * 스트리밍 호출 (timeoutMs 는 첫 텍스트까지의 타임아웃, 지연은 recordStreamFirstByte 로 따로 기록)
+     */
+    public <T> T executeStream(GuardedCall<T> call) {
+        return execute(streamFirstByteTracker, false, call);
+    }
+
+    /**
+     * 스트리밍 호출의 첫 텍스트까지 걸린 시간 기록 (첫 응답 타임아웃이면 그 타임아웃 값)
+     */
+    public void recordStreamFirstByte(long latencyMs) {
+        streamFirstByteTracker.record(latencyMs);
+    }
+
+    private <T> T execute(LatencyTracker latencyTracker, boolean recordLatency, GuardedCall<T> call) {
+        calls.increment();
+        depositRetryBudget();
+
+        // 서킷이 열려 있으면 동시 호출 자리를 기다리지 않고 바로 거절한다.
+        if (!circuitBreaker.isCallPermitted()) {
+            rejectedOpen.increment();
+            logger.warn("Gemini circuit is {}, skipping call", circuitBreaker.getState());
+            return null;
+        }
+
+        try {
+            for (int attempt = 0; ; attempt++) {
+                if (!concurrencyLimit.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    rejectedConcurrency.increment();
+                    logger.warn("Gemini concurrency limit reached, skipping call");
+                    return null;
+                }
+                try {
+                    if (!circuitBreaker.tryAcquire()) {
+                        rejectedOpen.increment();
+                        logger.warn("Gemini circuit is {}, skipping call", circuitBreaker.getState());
+                        return null;
+                    }
+                    long timeoutMs = circuitBreaker.getState() == CircuitBreaker.State.HALF_OPEN
+                            ? latencyTracker.maxTimeoutMs()
+                            : latencyTracker.timeoutMs();
+                    long startedAt = System.nanoTime();
+                    // 예상하지 못한 예외로 빠져나가도 결과를 보고해야 반개방 시험 호출 자리가 풀린다.
+                    boolean reported = false;
+                    try {
+                        T result = call.call(timeoutMs);
+                        if (recordLatency) {
+                            latencyTracker.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+                        }
+                        circuitBreaker.onSuccess();
+                        reported = true;
+                        return result;
+                    } catch (IOException | RetryableException e) {
+                        if (recordLatency && e instanceof InterruptedIOException) {
+                            latencyTracker.record(timeoutMs);
+                        }
+                        failures.increment();
+                        circuitBreaker.onFailure();
+                        reported = true;
+                        logger.warn("Gemini call attempt {} failed (timeout {} ms): {}", attempt + 1, timeoutMs,
+                                e.getMessage());
+                        if (attempt >= maxRetries || circuitBreaker.getState() != CircuitBreaker.State.CLOSED
+                                || !withdrawRetryBudget()) {
+                            return null;
+                        }
+                    } finally {
+                        if (!reported) {
+                            failures.increment();
+                            circuitBreaker.onFailure();
+                        }
+                    }
+                } finally {
+                    concurrencyLimit.release();
+                }
+                // 재시도 대기 중에는 동시 호출 자리를 놓아 다른 호출이 쓰게 한다.
+                retries.increment();
+                sleepWithJitter(attempt);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("circuitState", circuitBreaker.getState().name());
+        stats.put("calls", calls.sum());
+        stats.put("failures", failures.sum());
+        stats.put("retries", retries.sum());
+        stats.put("rejectedOpen", rejectedOpen.sum());
+        stats.put("rejectedConcurrency", rejectedConcurrency.sum());
+        stats.put("inFlight", maxConcurrentCalls - concurrencyLimit.availablePermits());
+        stats.put("latencyPercentileMs", latencyTracker.percentileMs());
+        stats.put("currentTimeoutMs", latencyTracker.timeoutMs());
+        stats.put("batchLatencyPercentileMs", batchLatencyTracker.percentileMs());
+        stats.put("batchTimeoutMs", batchLatencyTracker.timeoutMs());
+        stats.put("streamFirstBytePercentileMs", streamFirstByteTracker.percentileMs());
+        stats.put("streamFirstByteTimeoutMs", streamFirstByteTracker.timeoutMs());
+        return stats;
+    }
+
+    private synchronized void depositRetryBudget() {
+        retryBudget = Math.min(retryBudgetMax, retryBudget + retryBudgetRatio);
+    }
+
+    private synchronized boolean withdrawRetryBudget() {
+        if (retryBudget < 1.0) {
+            return false;
+        }
+        retryBudget -= 1.0;
+        return true;
+    }
+
+    private void sleepWithJitter(int attempt) throws InterruptedException {
+        // full jitter: [0, base * 2^attempt)
+        long ceiling = baseBackoffMs << Math.min(attempt, 10);
+        Thread.sleep(ThreadLocalRandom.current().nextLong(Math.max(1L, ceiling)));
+    }
+}
@@ -0,0 +1,130 @@
+package com.drinkspeed.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Gemini 결과 메시지 마이크로 배칭
+ *
+ * 창(window-ms)이 비어 있을 때 들어온 요청이 리더가 되어 창이 끝나거나 max-size 가 찰 때까지 기다린 뒤,
+ * 그동안 모인 요청을 한 번의 Gemini 요청으로 처리한다. 별도 스레드 없이 호출 스레드가 리더 역할을 한다.
+ * 한 배치는 max-size 를 넘지 않으며, 남은 요청 중 가장 먼저 온 요청이 다음 배치의 리더가 된다.
+ * 배치 응답에서 빠지거나 배치가 실패한 사용자는 리더가 대신 처리하지 않고 각 요청 스레드가 개별 요청으로 다시 처리한다.
+ */
+public class GeminiMessageBatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeminiMessageBatcher.class);
+
+    // 배치 결과가 비어 있으면 요청 스레드가 직접 개별 요청한다.
+    private record Pending(GeminiResultCache.Key key, CompletableFuture<Optional<String>> result,
+            CompletableFuture<Void> promoted) {
+    }
+
+    private final boolean enabled;
+    private final long windowMs;
+    private final int maxBatchSize;
+    private final Function<List<GeminiResultCache.Key>, Map<GeminiResultCache.Key, String>> batchCall;
+    private final Function<GeminiResultCache.Key, String> singleCall;
+
+    private final Object lock = new Object();
+    private List<Pending> pending = new ArrayList<>();
+
+    public GeminiMessageBatcher(boolean enabled, long windowMs, int maxBatchSize,
+            Function<List<GeminiResultCache.Key>, Map<GeminiResultCache.Key, String>> batchCall,
+            Function<GeminiResultCache.Key, String> singleCall) {
+        this.enabled = enabled;
+        this.windowMs = windowMs;
+        this.maxBatchSize = maxBatchSize;
+        this.batchCall = batchCall;
+        this.singleCall = singleCall;
+    }
+
+    /**
+     * 메시지 요청 (배치 처리 후 결과 반환, 실패 시 null)
+     */
+    public String submit(GeminiResultCache.Key key) {
+        if (!enabled || maxBatchSize <= 1) {
+            return singleCall.apply(key);
+        }
+
+        Pending mine = new Pending(key, new CompletableFuture<>(), new CompletableFuture<>());
+        boolean leader;
+        synchronized (lock) {
+            pending.add(mine);
+            leader = pending.size() == 1;
+            if (pending.size() >= maxBatchSize) {
+                lock.notifyAll();
+            }
+        }
+
+        if (!leader) {
+            // 결과가 오거나, 앞 배치에서 넘친 요청의 리더로 지정될 때까지 기다린다.
+            CompletableFuture.anyOf(mine.result(), mine.promoted()).join();
+            leader = !mine.result().isDone();
+        }
+        if (leader) {
+            dispatch(awaitBatch());
+        }
+        return mine.result().join().orElseGet(() -> singleCall.apply(key));
+    }
+
+    private List<Pending> awaitBatch() {
+        long deadline = System.currentTimeMillis() + windowMs;
+        synchronized (lock) {
+            long remaining;
+            while (pending.size() < maxBatchSize && (remaining = deadline - System.currentTimeMillis()) > 0) {
+                try {
+                    lock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            if (pending.size() <= maxBatchSize) {
+                List<Pending> batch = pending;
+                pending = new ArrayList<>();
+                return batch;
+            }
+            List<Pending> batch = new ArrayList<>(pending.subList(0, maxBatchSize));
+            pending = new ArrayList<>(pending.subList(maxBatchSize, pending.size()));
+            pending.get(0).promoted().complete(null);
+            return batch;
+        }
+    }
+
+    private void dispatch(List<Pending> batch) {
+        if (batch.size() == 1) {
+            batch.get(0).result().complete(Optional.empty());
+            return;
+        }
+        try {
+            List<GeminiResultCache.Key> keys = new ArrayList<>(batch.size());
+            for (Pending p : batch) {
+                keys.add(p.key());
+            }
+            Map<GeminiResultCache.Key, String> messages = batchCall.apply(keys);
+
+            int misses = 0;
+            for (Pending p : batch) {
+                Optional<String> message = Optional.ofNullable(messages != null ? messages.get(p.key()) : null);
+                if (message.isEmpty()) {
+                    misses++;
+                }
+                p.result().complete(message);
+            }
+            logger.info("Dispatched Gemini batch of {} users ({} retried individually)", batch.size(), misses);
+        } catch (RuntimeException e) {
+            logger.error("Gemini batch dispatch failed", e);
+            for (Pending p : batch) {
+                p.result().complete(Optional.empty());
+            }
+        }
+    }
+}
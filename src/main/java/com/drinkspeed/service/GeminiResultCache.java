@@ -0,0 +1,165 @@
+package com.drinkspeed.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Gemini 결과 메시지 캐시
+ * 정규화된 입력(닉네임, 구간화한 시간, 소주 환산량, 레벨)을 키로 TTL + LRU 로 보관하고,
+ * 같은 키의 동시 요청은 하나의 Gemini 호출 결과를 공유한다. (single-flight)
+ */
+@Component
+public class GeminiResultCache {
+
+    /**
+     * 정규화된 캐시 키
+     *
+     * @param userName       공백을 제거한 닉네임
+     * @param durationBucket 술자리 시간 구간 번호 (duration-bucket-seconds 단위)
+     * @param sojuTenths     소주 환산량 x10 (프롬프트의 소수점 한 자리와 동일)
+     * @param level          주량 레벨
+     */
+    public record Key(String userName, int durationBucket, int sojuTenths, int level) {
+    }
+
+    private record Entry(String message, long expiresAtMillis) {
+    }
+
+    private final int durationBucketSeconds;
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Key, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public GeminiResultCache(@Value("${gemini.cache.duration-bucket-seconds:300}") int durationBucketSeconds,
+            @Value("${gemini.cache.max-entries:1000}") int maxEntries,
+            @Value("${gemini.cache.ttl-seconds:3600}") long ttlSeconds) {
+        this.durationBucketSeconds = durationBucketSeconds;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlSeconds * 1000L;
+    }
+
+    public Key key(String userName, int durationSeconds, double totalSojuEquivalent, int level) {
+        return new Key(
+                userName != null ? userName.trim() : "",
+                durationSeconds / durationBucketSeconds,
+                (int) Math.round(totalSojuEquivalent * 10),
+                level);
+    }
+
+    /**
+     * 키가 대표하는 술자리 시간 (구간 중앙값, 초)
+     */
+    public int durationSeconds(Key key) {
+        return key.durationBucket() * durationBucketSeconds + durationBucketSeconds / 2;
+    }
+
+    public double totalSojuEquivalent(Key key) {
+        return key.sojuTenths() / 10.0;
+    }
+
+    /**
+     * 캐시 조회, 없으면 loader 로 생성 (loader 가 null 을 반환하면 캐시하지 않음)
+     */
+    public String get(Key key, Supplier<String> loader) {
+        String cached = lookup(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        CompletableFuture<String> flight = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.increment();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                return null;
+            }
+        }
+
+        try {
+            // 선행 요청이 방금 끝났을 수 있으므로 한 번 더 확인
+            String message = lookup(key);
+            if (message != null) {
+                hits.increment();
+            } else {
+                misses.increment();
+                message = loader.get();
+                if (message != null) {
+                    store(key, message);
+                }
+            }
+            flight.complete(message);
+            return message;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("coalesced", coalesced.sum());
+        stats.put("evictions", evictions.sum());
+        stats.put("hitRatio", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.put("size", size());
+        stats.put("inFlight", inFlight.size());
+        return stats;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private String lookup(Key key) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAtMillis() <= System.currentTimeMillis()) {
+                entries.remove(key);
+                evictions.increment();
+                return null;
+            }
+            return entry.message();
+        }
+    }
+
+    private void store(Key key, String message) {
+        synchronized (entries) {
+            entries.put(key, new Entry(message, System.currentTimeMillis() + ttlMillis));
+            Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+            while (entries.size() > maxEntries && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+}
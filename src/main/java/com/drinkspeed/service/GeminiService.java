@@ -3,12 +3,25 @@ package com.drinkspeed.service;
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import okhttp3.*;
+import okio.BufferedSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.concurrent.TimeUnit;
 
 @Service
@@ -17,21 +30,121 @@ public class GeminiService {
     private static final Logger logger = LoggerFactory.getLogger(GeminiService.class);
     private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
 
-    @Value("${gemini.api.key}")
-    private String apiKey;
+    // 레벨 이름 매핑
+    private static final String[] LEVEL_NAMES = { "홍익인간", "일청담 다이버", "술 취한 다람쥐", "술고래 지망생", "술먹는 하마" };
 
-    @Value("${gemini.api.url}")
-    private String apiUrl;
+    private static final String PROMPT_ROLE =
+            "# Role\n" +
+            "당신은 술자리 분위기를 띄워주는 유머러스하고 재치 있는 'AI 술자리 해설가'입니다. 사용자의 주량 데이터와 레벨을 분석하여, 결과 화면에 띄울 멘트를 작성해야 합니다.\n\n";
 
-    private final OkHttpClient client;
-    private final Gson gson;
+    private static final String PROMPT_GUIDE =
+            "# 주량 레벨 정의 (총 5단계)\n" +
+            "0. [홍익인간]: 술을 거의 못 마심. 한 잔만 마셔도 얼굴이 빨개짐.\n" +
+            "1. [일청담 다이버]: 술자리 분위기에 휩쓸려 마시는 단계.\n" +
+            "2. [술취한 다람쥐]: 적당히 취해서 기분이 좋고 행동이 귀여워짐.\n" +
+            "3. [술고래 후보생]: 술을 꽤 잘 마시며 즐기는 고수.\n" +
+            "4. [술먹는 하마]: 엄청난 주량을 가진 끝판왕.\n\n" +
+            "# Output Rules\n" +
+            "1. 반드시 첫 문장은 다음 포맷을 그대로 따를 것: \"{nickname}님, 소주 환산 기준 {soju_count}잔을 마시셨네요!\"\n" +
+            "2. 두 번째 문장은 '총 술자리 시간'과 '소주 환산 잔 수'의 관계를 깊이 있게 분석하여 코멘트를 작성할 것.\n" +
+            "   - (판단 기준 예시) 사용자의 공식 레벨이 높더라도(예: 술먹는 하마), 만약 '총 술자리 시간'이 30분 미만으로 매우 짧다면, 이는 '단거리 전력 질주형'입니다. 이 경우, '엄청난 속도였지만 페이스 조절은 아쉬웠다'는 뉘앙스로 코멘트해주세요.\n" +
+            "   - 반대로, 오랜 시간에 걸쳐 꾸준히 마셨다면, 그 꾸준함과 안정적인 페이스를 칭찬해주세요.\n" +
+            "   - 그 외에는 '주량 레벨 정의'에 맞는 일반적인 코멘트를 작성해주세요.\n" +
+            "3. 톤앤매너(Tone & Manner): 재치 있고, 유머러스하며, 긍정적인 톤을 유지할 것. 절대 사용자를 비난하거나 부정적으로 평가하지 말 것.\n\n" +
+            "# Examples\n" +
+            "- (LV4, 25분만에 5잔) → \"엄청난 속도지만, 너무 단거리 경주 아니었나요? 다음엔 마라톤처럼 길게 즐겨보세요!\"\n" +
+            "- (LV2, 3시간 동안 13잔) → \"3시간 동안 꾸준히 달리셨군요! 안정적인 페이스가 인상적입니다.\"";
 
-    public GeminiService() {
-        this.client = new OkHttpClient.Builder()
+    private static final String PROMPT_TEMPLATE = PROMPT_ROLE +
+            "# Input Data\n" +
+            "1. 사용자 닉네임: %s\n" +
+            "2. 총 술자리 시간: %s\n" +
+            "3. 소주 환산 잔 수: %.1f잔\n" +
+            "4. 주량 레벨: %s\n\n" +
+            PROMPT_GUIDE;
+
+    private static final String BATCH_PROMPT_TEMPLATE = PROMPT_ROLE +
+            "# Input Data\n" +
+            "아래 사용자마다 각각 독립된 멘트를 작성하세요.\n" +
+            "%s\n" +
+            PROMPT_GUIDE + "\n\n" +
+            "# Output Format\n" +
+            "반드시 JSON 배열만 출력할 것: [{\"id\": 사용자 번호, \"message\": \"멘트\"}]";
+
+    // gemini.request 지표의 outcome 태그 값
+    private static final String OUTCOME_SUCCESS = "success";
+    private static final String OUTCOME_HTTP_ERROR = "http_error";
+    private static final String OUTCOME_PARSE_FAILURE = "parse_failure";
+    private static final String OUTCOME_IO_ERROR = "io_error";
+
+    private static final String BATCH_USER_LINE =
+            "- id=%d | 닉네임: %s | 총 술자리 시간: %s | 소주 환산 잔 수: %.1f잔 | 주량 레벨: %s\n";
+
+    // streamGenerateContent 를 SSE 형식으로 받을 때의 청크 줄 머리
+    private static final String SSE_DATA_PREFIX = "data:";
+
+    /**
+     * Gemini HTTP 클라이언트와 Gson (처음 호출할 때 만든다)
+     *
+     * 기동 시 OkHttp / Gson 클래스 로딩과 커넥션 풀 생성을 하지 않아 준비 완료가 빨라진다.
+     */
+    private static final class Clients {
+        private static final OkHttpClient HTTP = new OkHttpClient.Builder()
                 .connectTimeout(30, TimeUnit.SECONDS)
                 .readTimeout(30, TimeUnit.SECONDS)
                 .build();
-        this.gson = new Gson();
+        private static final Gson GSON = new Gson();
+    }
+
+    private final String apiKey;
+    private final String apiUrl;
+    private final String streamUrl;
+    private final boolean streamEnabled;
+    private final long streamIdleTimeoutMs;
+
+    private final GeminiResultCache resultCache;
+    private final GeminiCallGuard callGuard;
+    private final GeminiMessageBatcher batcher;
+    private final Map<String, Timer> requestTimers;
+    private final Timer firstTokenTimer;
+
+    public GeminiService(GeminiResultCache resultCache, GeminiCallGuard callGuard, MeterRegistry meterRegistry,
+            @Value("${gemini.api.key}") String apiKey,
+            @Value("${gemini.api.url}") String apiUrl,
+            @Value("${gemini.stream.enabled:false}") boolean streamEnabled,
+            @Value("${gemini.stream.url:}") String streamUrl,
+            @Value("${gemini.stream.idle-timeout-ms:5000}") long streamIdleTimeoutMs,
+            @Value("${gemini.batch.enabled:true}") boolean batchEnabled,
+            @Value("${gemini.batch.window-ms:200}") long batchWindowMs,
+            @Value("${gemini.batch.max-size:10}") int batchMaxSize) {
+        this.apiKey = apiKey;
+        this.apiUrl = apiUrl;
+        this.streamEnabled = streamEnabled;
+        this.streamIdleTimeoutMs = streamIdleTimeoutMs;
+        // 따로 지정하지 않으면 generateContent 주소에서 만든다.
+        this.streamUrl = streamUrl == null || streamUrl.isEmpty()
+                ? apiUrl.replace(":generateContent", ":streamGenerateContent")
+                : streamUrl;
+        this.resultCache = resultCache;
+        this.callGuard = callGuard;
+        this.batcher = new GeminiMessageBatcher(batchEnabled, batchWindowMs, batchMaxSize,
+                this::requestBatch, this::requestSingle);
+        // 호출마다 조회하지 않도록 결과별 타이머를 미리 등록
+        this.requestTimers = Stream.of(OUTCOME_SUCCESS, OUTCOME_HTTP_ERROR, OUTCOME_PARSE_FAILURE, OUTCOME_IO_ERROR)
+                .collect(Collectors.toUnmodifiableMap(Function.identity(), outcome -> Timer.builder("gemini.request")
+                        .description("Gemini HTTP 요청 지연 (재시도 시 시도마다 기록)")
+                        .tag("outcome", outcome)
+                        .register(meterRegistry)));
+        this.firstTokenTimer = Timer.builder("gemini.stream.first-token")
+                .description("스트리밍 요청 시작부터 첫 텍스트 청크까지의 시간")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 스트리밍 모드 사용 여부 (gemini.stream.enabled)
+     */
+    public boolean isStreamingEnabled() {
+        return streamEnabled;
     }
 
     /**
@@ -39,73 +152,242 @@ public class GeminiService {
      */
     public String generateDrinkingResultMessage(String userName, int durationSeconds, double totalSojuEquivalent,
             int level) {
+        String message = requestDrinkingResultMessage(userName, durationSeconds, totalSojuEquivalent, level);
+        return message != null ? message : generateFallbackMessage(userName, durationSeconds);
+    }
+
+    /**
+     * Gemini API 호출 결과 메시지 반환 (실패 시 null)
+     */
+    public String requestDrinkingResultMessage(String userName, int durationSeconds, double totalSojuEquivalent,
+            int level) {
+        if (!hasApiKey()) {
+            return null;
+        }
+
+        // 결과는 정규화된 입력에만 의존하므로 캐시/동시 요청 병합 후 배치로 호출
+        GeminiResultCache.Key key = resultCache.key(userName, durationSeconds, totalSojuEquivalent, level);
+        return resultCache.get(key, () -> batcher.submit(key));
+    }
+
+    /**
+     * streamGenerateContent 로 결과 메시지 생성 (실패 시 null)
+     * 텍스트 청크가 도착할 때마다 지금까지 누적된 텍스트를 onPartial 로 넘긴다. (재시도하면 처음부터 다시 누적)
+     * 같은 입력의 결과가 캐시에 있거나 다른 요청이 생성 중이면 부분 텍스트 없이 그 결과를 기다린다.
+     */
+    public String streamDrinkingResultMessage(String userName, int durationSeconds, double totalSojuEquivalent,
+            int level, Consumer<String> onPartial) {
+        if (!hasApiKey()) {
+            return null;
+        }
+        GeminiResultCache.Key key = resultCache.key(userName, durationSeconds, totalSojuEquivalent, level);
+        return resultCache.get(key, () -> requestStreaming(key, onPartial));
+    }
+
+    private boolean hasApiKey() {
         if (apiKey == null || apiKey.isEmpty() || apiKey.equals("your-gemini-api-key-here")) {
             logger.warn("Gemini API key is missing or invalid. Key: {}", (apiKey == null ? "null" : "masked"));
-            return generateFallbackMessage(userName, durationSeconds);
+            return false;
         }
+        return true;
+    }
 
+    /**
+     * 단일 사용자 메시지 요청
+     */
+    private String requestSingle(GeminiResultCache.Key key) {
         try {
-            logger.info("Starting Gemini API request for user: {}", userName);
-            String durationStr = formatDuration(durationSeconds);
-
-            // 레벨 이름 매핑
-            String[] levelNames = { "홍익인간", "일청담 다이버", "술 취한 다람쥐", "술고래 지망생", "술먹는 하마" };
-            String levelName = (level >= 0 && level < levelNames.length) ? levelNames[level] : "알 수 없음";
-
-            String prompt = String.format(
-                    "# Role\n" +
-                            "당신은 술자리 분위기를 띄워주는 유머러스하고 재치 있는 'AI 술자리 해설가'입니다. 사용자의 주량 데이터와 레벨을 분석하여, 결과 화면에 띄울 멘트를 작성해야 합니다.\n\n" +
-                            "# Input Data\n" +
-                            "1. 사용자 닉네임: %s\n" +
-                            "2. 총 술자리 시간: %s\n" +
-                            "3. 소주 환산 잔 수: %.1f잔\n" +
-                            "4. 주량 레벨: %s\n\n" +
-                            "# 주량 레벨 정의 (총 5단계)\n" +
-                            "0. [홍익인간]: 술을 거의 못 마심. 한 잔만 마셔도 얼굴이 빨개짐.\n" +
-                            "1. [일청담 다이버]: 술자리 분위기에 휩쓸려 마시는 단계.\n" +
-                            "2. [술취한 다람쥐]: 적당히 취해서 기분이 좋고 행동이 귀여워짐.\n" +
-                            "3. [술고래 후보생]: 술을 꽤 잘 마시며 즐기는 고수.\n" +
-                            "4. [술먹는 하마]: 엄청난 주량을 가진 끝판왕.\n\n" +
-                            "# Output Rules\n" +
-                            "1. 반드시 첫 문장은 다음 포맷을 그대로 따를 것: \"{nickname}님, 소주 환산 기준 {soju_count}잔을 마시셨네요!\"\n" +
-                            "2. 두 번째 문장은 '총 술자리 시간'과 '소주 환산 잔 수'의 관계를 깊이 있게 분석하여 코멘트를 작성할 것.\n" +
-                            "   - (판단 기준 예시) 사용자의 공식 레벨이 높더라도(예: 술먹는 하마), 만약 '총 술자리 시간'이 30분 미만으로 매우 짧다면, 이는 '단거리 전력 질주형'입니다. 이 경우, '엄청난 속도였지만 페이스 조절은 아쉬웠다'는 뉘앙스로 코멘트해주세요.\n" +
-                            "   - 반대로, 오랜 시간에 걸쳐 꾸준히 마셨다면, 그 꾸준함과 안정적인 페이스를 칭찬해주세요.\n" +
-                            "   - 그 외에는 '주량 레벨 정의'에 맞는 일반적인 코멘트를 작성해주세요.\n" +
-                            "3. 톤앤매너(Tone & Manner): 재치 있고, 유머러스하며, 긍정적인 톤을 유지할 것. 절대 사용자를 비난하거나 부정적으로 평가하지 말 것.\n\n" +
-                            "# Examples\n" +
-                            "- (LV4, 25분만에 5잔) → \"엄청난 속도지만, 너무 단거리 경주 아니었나요? 다음엔 마라톤처럼 길게 즐겨보세요!\"\n" +
-                            "- (LV2, 3시간 동안 13잔) → \"3시간 동안 꾸준히 달리셨군요! 안정적인 페이스가 인상적입니다.\""
-                    ,userName, durationStr, totalSojuEquivalent, levelName);
-
-            String requestBody = buildGeminiRequest(prompt);
-            Request request = new Request.Builder()
-                    .url(apiUrl + "?key=" + apiKey)
-                    .post(RequestBody.create(requestBody, JSON))
-                    .build();
-
-            try (Response response = client.newCall(request).execute()) {
-                String responseBody = response.body() != null ? response.body().string() : "";
-                logger.info("Gemini API Response Code: {}", response.code());
-
-                if (response.isSuccessful()) {
-                    String generatedMessage = parseGeminiResponse(responseBody);
-
-                    if (generatedMessage != null && !generatedMessage.isEmpty()) {
-                        logger.info("Successfully generated result message via Gemini for user: {}", userName);
-                        return generatedMessage.trim();
-                    } else {
-                        logger.warn("Gemini response parsed to empty message. Body: {}", responseBody);
-                    }
-                } else {
-                    logger.error("Gemini API Request Failed: Code {}, Body: {}", response.code(), responseBody);
-                }
+            logger.debug("Starting Gemini API request for user: {}", key.userName());
+            Request request = buildHttpRequest(apiUrl + "?key=" + apiKey, buildGeminiRequest(singlePrompt(key), false));
+            String generatedMessage = callGuard.execute(timeoutMs -> executeRequest(request, timeoutMs));
+            if (generatedMessage != null) {
+                logger.debug("Successfully generated result message via Gemini for user: {}", key.userName());
             }
+            return generatedMessage;
         } catch (Exception e) {
             logger.error("Failed to generate result message via Gemini API", e);
         }
 
-        return generateFallbackMessage(userName, durationSeconds);
+        return null;
+    }
+
+    /**
+     * 단일 사용자 메시지 스트리밍 요청
+     */
+    private String requestStreaming(GeminiResultCache.Key key, Consumer<String> onPartial) {
+        try {
+            logger.debug("Starting Gemini API streaming request for user: {}", key.userName());
+            Request request = buildHttpRequest(streamUrl + "?alt=sse&key=" + apiKey,
+                    buildGeminiRequest(singlePrompt(key), false));
+            return callGuard.executeStream(timeoutMs -> executeStreamingRequest(request, timeoutMs, onPartial));
+        } catch (Exception e) {
+            logger.error("Failed to stream result message via Gemini API", e);
+        }
+        return null;
+    }
+
+    private String singlePrompt(GeminiResultCache.Key key) {
+        return String.format(PROMPT_TEMPLATE, key.userName(), formatDuration(resultCache.durationSeconds(key)),
+                resultCache.totalSojuEquivalent(key), levelName(key.level()));
+    }
+
+    /**
+     * 여러 사용자 메시지를 한 번에 요청 (응답에서 빠지거나 파싱에 실패한 사용자는 결과에서 제외)
+     */
+    private Map<GeminiResultCache.Key, String> requestBatch(List<GeminiResultCache.Key> keys) {
+        Map<GeminiResultCache.Key, String> messages = new HashMap<>();
+        try {
+            logger.debug("Starting Gemini API batch request for {} users", keys.size());
+            StringBuilder users = new StringBuilder();
+            for (int i = 0; i < keys.size(); i++) {
+                GeminiResultCache.Key key = keys.get(i);
+                users.append(String.format(BATCH_USER_LINE, i + 1, key.userName(),
+                        formatDuration(resultCache.durationSeconds(key)), resultCache.totalSojuEquivalent(key),
+                        levelName(key.level())));
+            }
+            String prompt = String.format(BATCH_PROMPT_TEMPLATE, users);
+
+            Request request = buildHttpRequest(apiUrl + "?key=" + apiKey, buildGeminiRequest(prompt, true));
+            String generatedText = callGuard.executeBatch(timeoutMs -> executeRequest(request, timeoutMs));
+            if (generatedText == null) {
+                return messages;
+            }
+            Map<Integer, String> byId = parseBatchMessages(generatedText);
+            for (int i = 0; i < keys.size(); i++) {
+                String message = byId.get(i + 1);
+                if (message != null && !message.isBlank()) {
+                    messages.put(keys.get(i), message.trim());
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Failed to generate batch result messages via Gemini API", e);
+        }
+        return messages;
+    }
+
+    private Request buildHttpRequest(String url, String requestBody) {
+        return new Request.Builder()
+                .url(url)
+                .post(RequestBody.create(requestBody, JSON))
+                .build();
+    }
+
+    /**
+     * 단일 Gemini 요청 실행 후 생성된 텍스트 반환
+     * 429/5xx 응답은 재시도 대상으로, 그 외 실패는 null 로 반환한다.
+     */
+    private String executeRequest(Request request, long timeoutMs)
+            throws IOException, GeminiCallGuard.RetryableException {
+        Call call = Clients.HTTP.newCall(request);
+        call.timeout().timeout(timeoutMs, TimeUnit.MILLISECONDS);
+        String outcome = OUTCOME_IO_ERROR;
+        long startedAt = System.nanoTime();
+        try (Response response = call.execute()) {
+            String responseBody = response.body() != null ? response.body().string() : "";
+
+            if (response.isSuccessful()) {
+                String generatedText = parseGeminiResponse(responseBody);
+
+                if (generatedText != null && !generatedText.isEmpty()) {
+                    outcome = OUTCOME_SUCCESS;
+                    return generatedText.trim();
+                }
+                outcome = OUTCOME_PARSE_FAILURE;
+                logger.warn("Gemini response parsed to empty message ({} bytes)", responseBody.length());
+                logger.debug("Gemini response body: {}", responseBody);
+                return null;
+            }
+            outcome = OUTCOME_HTTP_ERROR;
+            if (response.code() == 429 || response.code() >= 500) {
+                throw new GeminiCallGuard.RetryableException("Gemini API returned HTTP " + response.code());
+            }
+            logger.error("Gemini API Request Failed: Code {}", response.code());
+            logger.debug("Gemini error response body: {}", responseBody);
+            return null;
+        } finally {
+            requestTimers.get(outcome).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 스트리밍 Gemini 요청 실행 후 누적된 텍스트 반환
+     * 응답 본문을 한꺼번에 읽지 않고 SSE 줄 단위로 읽으며 청크마다 텍스트만 꺼낸다.
+     * 전체 호출 시간은 제한하지 않고, 첫 텍스트는 firstByteTimeoutMs 안에,
+     * 그 뒤로는 읽기 사이 간격이 stream.idle-timeout-ms 를 넘지 않아야 한다.
+     */
+    private String executeStreamingRequest(Request request, long firstByteTimeoutMs, Consumer<String> onPartial)
+            throws IOException, GeminiCallGuard.RetryableException {
+        // 호출별 설정은 newBuilder 로 만든 클라이언트에 둔다 (커넥션 풀과 디스패처는 공유)
+        OkHttpClient client = Clients.HTTP.newBuilder()
+                .readTimeout(firstByteTimeoutMs, TimeUnit.MILLISECONDS)
+                .build();
+        Call call = client.newCall(request);
+        String outcome = OUTCOME_IO_ERROR;
+        long startedAt = System.nanoTime();
+        boolean firstText = false;
+        try (Response response = call.execute()) {
+            if (!response.isSuccessful()) {
+                outcome = OUTCOME_HTTP_ERROR;
+                if (response.code() == 429 || response.code() >= 500) {
+                    throw new GeminiCallGuard.RetryableException("Gemini API returned HTTP " + response.code());
+                }
+                logger.error("Gemini API Streaming Request Failed: Code {}", response.code());
+                return null;
+            }
+
+            ResponseBody body = response.body();
+            if (body == null) {
+                outcome = OUTCOME_PARSE_FAILURE;
+                return null;
+            }
+            StringBuilder text = new StringBuilder();
+            int chunks = 0;
+            BufferedSource source = body.source();
+            // 응답 헤더가 온 뒤에도 첫 텍스트까지는 처음 정한 시각을 넘기지 않는다.
+            source.timeout().deadlineNanoTime(startedAt + TimeUnit.MILLISECONDS.toNanos(firstByteTimeoutMs));
+            String line;
+            while ((line = source.readUtf8Line()) != null) {
+                // 이벤트마다 "data: {GenerateContentResponse}" 한 줄, 이벤트 사이는 빈 줄
+                if (!line.startsWith(SSE_DATA_PREFIX)) {
+                    continue;
+                }
+                chunks++;
+                String chunk = parseGeminiChunk(line.substring(SSE_DATA_PREFIX.length()));
+                if (chunk == null || chunk.isEmpty()) {
+                    continue;
+                }
+                if (!firstText) {
+                    firstText = true;
+                    long firstTextNanos = System.nanoTime() - startedAt;
+                    firstTokenTimer.record(firstTextNanos, TimeUnit.NANOSECONDS);
+                    callGuard.recordStreamFirstByte(TimeUnit.NANOSECONDS.toMillis(firstTextNanos));
+                    source.timeout().clearDeadline().timeout(streamIdleTimeoutMs, TimeUnit.MILLISECONDS);
+                }
+                text.append(chunk);
+                onPartial.accept(text.toString());
+            }
+
+            String generatedText = text.toString().trim();
+            if (generatedText.isEmpty()) {
+                outcome = OUTCOME_PARSE_FAILURE;
+                logger.warn("Gemini stream produced no text ({} chunks)", chunks);
+                return null;
+            }
+            outcome = OUTCOME_SUCCESS;
+            return generatedText;
+        } catch (InterruptedIOException e) {
+            if (!firstText) {
+                // 첫 텍스트 전에 타임아웃되면 실제 지연을 알 수 없으므로 타임아웃 값을 표본으로 남긴다.
+                callGuard.recordStreamFirstByte(firstByteTimeoutMs);
+            }
+            throw e;
+        } finally {
+            requestTimers.get(outcome).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private String levelName(int level) {
+        return (level >= 0 && level < LEVEL_NAMES.length) ? LEVEL_NAMES[level] : "알 수 없음";
     }
 
     private String formatDuration(int totalSeconds) {
@@ -122,7 +404,7 @@ public class GeminiService {
         return sb.toString();
     }
 
-    private String buildGeminiRequest(String prompt) {
+    private String buildGeminiRequest(String prompt, boolean jsonOutput) {
         JsonObject request = new JsonObject();
         JsonArray contents = new JsonArray();
         JsonObject content = new JsonObject();
@@ -133,12 +415,17 @@ public class GeminiService {
         content.add("parts", parts);
         contents.add(content);
         request.add("contents", contents);
-        return gson.toJson(request);
+        if (jsonOutput) {
+            JsonObject generationConfig = new JsonObject();
+            generationConfig.addProperty("responseMimeType", "application/json");
+            request.add("generationConfig", generationConfig);
+        }
+        return Clients.GSON.toJson(request);
     }
 
     private String parseGeminiResponse(String responseBody) {
         try {
-            JsonObject jsonResponse = gson.fromJson(responseBody, JsonObject.class);
+            JsonObject jsonResponse = Clients.GSON.fromJson(responseBody, JsonObject.class);
             if (jsonResponse.has("candidates")) {
                 JsonArray candidates = jsonResponse.getAsJsonArray("candidates");
                 if (candidates.size() > 0) {
@@ -156,7 +443,63 @@ public class GeminiService {
         return null;
     }
 
-    private String generateFallbackMessage(String userName, int durationSeconds) {
+    /**
+     * 스트리밍 청크 하나의 텍스트 (후보의 모든 part 를 이어 붙임, 텍스트가 없는 청크는 null)
+     */
+    private String parseGeminiChunk(String json) {
+        try {
+            JsonObject chunk = JsonParser.parseString(json).getAsJsonObject();
+            JsonArray candidates = chunk.getAsJsonArray("candidates");
+            if (candidates == null || candidates.size() == 0) {
+                return null;
+            }
+            JsonObject content = candidates.get(0).getAsJsonObject().getAsJsonObject("content");
+            JsonArray parts = content != null ? content.getAsJsonArray("parts") : null;
+            if (parts == null) {
+                return null;
+            }
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < parts.size(); i++) {
+                JsonObject part = parts.get(i).getAsJsonObject();
+                if (part.has("text")) {
+                    text.append(part.get("text").getAsString());
+                }
+            }
+            return text.toString();
+        } catch (RuntimeException e) {
+            logger.warn("Skipping unparsable Gemini stream chunk: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 배치 응답 파싱: [{"id": 1, "message": "..."}] → id 별 메시지
+     */
+    private Map<Integer, String> parseBatchMessages(String generatedText) {
+        Map<Integer, String> messages = new HashMap<>();
+        try {
+            String json = generatedText.trim();
+            // 코드 블록으로 감싼 응답도 허용
+            int start = json.indexOf('[');
+            int end = json.lastIndexOf(']');
+            if (start < 0 || end < start) {
+                logger.warn("Gemini batch response is not a JSON array");
+                return messages;
+            }
+            JsonArray items = Clients.GSON.fromJson(json.substring(start, end + 1), JsonArray.class);
+            for (int i = 0; i < items.size(); i++) {
+                JsonObject item = items.get(i).getAsJsonObject();
+                if (item.has("id") && item.has("message")) {
+                    messages.put(item.get("id").getAsInt(), item.get("message").getAsString());
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Failed to parse Gemini batch response", e);
+        }
+        return messages;
+    }
+
+    public String generateFallbackMessage(String userName, int durationSeconds) {
         return String.format("%s님! 총 %d초 동안 즐기셨네요.", userName, durationSeconds);
     }
 }
\ No newline at end of file
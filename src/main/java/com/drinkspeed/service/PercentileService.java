@@ -0,0 +1,244 @@
+package com.drinkspeed.service;
+
+import com.drinkspeed.domain.User;
+import com.drinkspeed.event.RankingChangedEvent;
+import com.drinkspeed.event.RoomDroppedEvent;
+import com.drinkspeed.util.QuantileSketch;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 소주 환산 잔 수 / 시속 분포 스케치 ("X% 보다 많이 마셨어요")
+ *
+ * 전체 분포와 참여 시각 구간(bucket-minutes)별 분포를 QuantileSketch 로 유지한다.
+ * 잔 추가 / 종료 등 랭킹 변경 이벤트마다 사용자의 이전 값을 빼고 새 값을 넣으며,
+ * 진행 중인 사용자의 마지막 반영 값만 따로 기억한다. (종료되면 값이 더 바뀌지 않으므로 잊는다)
+ * 시속은 잔을 추가하지 않아도 떨어지므로 레벨 재계산 주기마다 진행 중인 사용자의 값을 다시 반영하고,
+ * 종료된 사용자는 종료 시점 값으로 고정한다. 메모리에서 내보낸 사용자도 분포에는 남는다.
+ */
+@Service
+public class PercentileService {
+
+    // 분포 조회 시 함께 돌려주는 분위수
+    private static final double[] QUANTILES = {0.1, 0.25, 0.5, 0.75, 0.9, 0.99};
+
+    /**
+     * 진행 중인 사용자의 마지막 반영 값
+     */
+    private record Recorded(Long roomId, long bucket, double sojuEquivalent, double glassPerHour) {
+    }
+
+    /**
+     * 같은 사용자 집합에 대한 잔 수 / 시속 스케치 한 쌍
+     */
+    private record Distribution(QuantileSketch sojuEquivalent, QuantileSketch glassPerHour) {
+
+        void add(double soju, double rate) {
+            sojuEquivalent.add(soju);
+            glassPerHour.add(rate);
+        }
+
+        void remove(double soju, double rate) {
+            sojuEquivalent.remove(soju);
+            glassPerHour.remove(rate);
+        }
+    }
+
+    private final UserService userService;
+    private final double relativeAccuracy;
+    private final long bucketMillis;
+    private final int maxBuckets;
+
+    private final Distribution global;
+    private final Map<Long, Distribution> buckets = new ConcurrentHashMap<>();
+    private final Map<Long, Recorded> active = new ConcurrentHashMap<>();
+
+    public PercentileService(UserService userService,
+            @Value("${percentile.relative-accuracy:0.01}") double relativeAccuracy,
+            @Value("${percentile.bucket-minutes:60}") long bucketMinutes,
+            @Value("${percentile.max-buckets:48}") int maxBuckets) {
+        this.userService = userService;
+        this.relativeAccuracy = relativeAccuracy;
+        this.bucketMillis = bucketMinutes * 60_000L;
+        this.maxBuckets = maxBuckets;
+        this.global = newDistribution();
+        // 복구된 사용자 반영 (UserService 는 생성 시점에 복구를 마친다)
+        for (User user : userService.getLiveUsers()) {
+            record(user, true);
+        }
+    }
+
+    @EventListener
+    public void onRankingChanged(RankingChangedEvent event) {
+        User user;
+        try {
+            user = userService.findUserById(event.userId());
+        } catch (IllegalArgumentException e) {
+            // 방 종료 등으로 이미 없는 사용자
+            return;
+        }
+        record(user, false);
+    }
+
+    /**
+     * 진행 중인 사용자의 현재 시속 다시 반영 (CharacterLevelScheduler 가 레벨 재계산 주기마다 호출)
+     */
+    public void resample(User user) {
+        record(user, false);
+    }
+
+    /**
+     * 종료된 방의 진행 중이던 사용자는 더 바뀌지 않으므로 잊는다. (분포에는 남는다)
+     */
+    @EventListener
+    public void onRoomDropped(RoomDroppedEvent event) {
+        active.values().removeIf(recorded -> event.roomId().equals(recorded.roomId()));
+    }
+
+    /**
+     * 사용자의 분포상 위치
+     *
+     * @param scope global: 전체, bucket: 사용자와 같은 참여 시각 구간
+     */
+    public Map<String, Object> percentileOf(Long userId, String scope) {
+        User user = userService.findUserById(userId);
+        boolean bucketScope = isBucketScope(scope);
+        long bucket = bucketOf(user);
+        Distribution distribution = bucketScope ? buckets.get(bucket) : global;
+        if (distribution == null) {
+            distribution = newDistribution();
+        }
+        double soju = user.getTotalSojuEquivalent();
+        double rate = userService.calculateGlassPerHour(user);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("userId", userId);
+        response.put("scope", bucketScope ? "bucket" : "global");
+        if (bucketScope) {
+            response.put("bucketStartMillis", bucket * bucketMillis);
+        }
+        response.put("count", distribution.sojuEquivalent().count());
+        response.put("totalSojuEquivalent", soju);
+        response.put("sojuEquivalentPercentile", percent(distribution.sojuEquivalent().rankOf(soju)));
+        response.put("glassPerHour", rate);
+        response.put("glassPerHourPercentile", percent(distribution.glassPerHour().rankOf(rate)));
+        response.put("sojuEquivalentQuantiles", quantiles(distribution.sojuEquivalent()));
+        response.put("glassPerHourQuantiles", quantiles(distribution.glassPerHour()));
+        return response;
+    }
+
+    /**
+     * 분포 분위수 (recentBuckets 가 0 이면 전체, 아니면 최근 구간 여러 개를 병합)
+     */
+    public Map<String, Object> distribution(int recentBuckets) {
+        if (recentBuckets < 0) {
+            throw new IllegalArgumentException("recentBuckets 는 0 이상이어야 합니다.");
+        }
+        Distribution distribution = global;
+        if (recentBuckets > 0) {
+            distribution = newDistribution();
+            long current = System.currentTimeMillis() / bucketMillis;
+            for (long bucket = current - recentBuckets + 1; bucket <= current; bucket++) {
+                Distribution partial = buckets.get(bucket);
+                if (partial != null) {
+                    distribution.sojuEquivalent().merge(partial.sojuEquivalent());
+                    distribution.glassPerHour().merge(partial.glassPerHour());
+                }
+            }
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("scope", recentBuckets > 0 ? "recent" : "global");
+        if (recentBuckets > 0) {
+            response.put("buckets", recentBuckets);
+            response.put("bucketMinutes", bucketMillis / 60_000L);
+        }
+        response.put("count", distribution.sojuEquivalent().count());
+        response.put("sojuEquivalentQuantiles", quantiles(distribution.sojuEquivalent()));
+        response.put("glassPerHourQuantiles", quantiles(distribution.glassPerHour()));
+        return response;
+    }
+
+    /**
+     * 사용자의 현재 값 반영 (이전 값이 있으면 빼고 넣는다)
+     *
+     * @param restoring 기동 시 복구된 사용자 (종료된 사용자도 한 번 넣는다)
+     */
+    private void record(User user, boolean restoring) {
+        long bucket = bucketOf(user);
+        double soju = user.getTotalSojuEquivalent();
+        double rate = userService.calculateGlassPerHour(user);
+        Distribution bucketDistribution = bucketDistribution(bucket);
+        active.compute(user.getId(), (id, previous) -> {
+            if (previous == null && user.isFinished() && !restoring) {
+                // 종료 후에 들어온 변경 이벤트 (종료 시점 값이 이미 반영되어 있다)
+                return null;
+            }
+            if (previous != null) {
+                global.remove(previous.sojuEquivalent(), previous.glassPerHour());
+                Distribution previousBucket = buckets.get(previous.bucket());
+                if (previousBucket != null) {
+                    previousBucket.remove(previous.sojuEquivalent(), previous.glassPerHour());
+                }
+            }
+            global.add(soju, rate);
+            if (bucketDistribution != null) {
+                bucketDistribution.add(soju, rate);
+            }
+            return user.isFinished() ? null : new Recorded(user.getRoomId(), bucket, soju, rate);
+        });
+    }
+
+    /**
+     * 참여 시각 구간의 분포 (보관 구간보다 오래된 구간이면 null, 새 구간을 만들 때 오래된 구간 정리)
+     */
+    private Distribution bucketDistribution(long bucket) {
+        long oldest = System.currentTimeMillis() / bucketMillis - maxBuckets + 1;
+        if (bucket < oldest) {
+            return null;
+        }
+        Distribution distribution = buckets.get(bucket);
+        if (distribution == null) {
+            distribution = buckets.computeIfAbsent(bucket, k -> newDistribution());
+            buckets.keySet().removeIf(key -> key < oldest);
+        }
+        return distribution;
+    }
+
+    private long bucketOf(User user) {
+        return user.getJoinedAtMillis() / bucketMillis;
+    }
+
+    private Distribution newDistribution() {
+        // 잔 수는 0.01 ~ 10000 잔, 시속은 0.01 ~ 10000 잔/시간 범위 밖이면 양 끝 버킷에 센다.
+        return new Distribution(new QuantileSketch(relativeAccuracy, 0.01, 10_000),
+                new QuantileSketch(relativeAccuracy, 0.01, 10_000));
+    }
+
+    private static boolean isBucketScope(String scope) {
+        if (scope == null || scope.equalsIgnoreCase("global")) {
+            return false;
+        }
+        if (scope.equalsIgnoreCase("bucket")) {
+            return true;
+        }
+        throw new IllegalArgumentException("알 수 없는 범위입니다: " + scope);
+    }
+
+    private static Map<String, Double> quantiles(QuantileSketch sketch) {
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (double q : QUANTILES) {
+            result.put("p" + Math.round(q * 100), sketch.quantile(q));
+        }
+        return result;
+    }
+
+    private static double percent(double rank) {
+        return Math.round(rank * 1000) / 10.0;
+    }
+}
@@ -0,0 +1,230 @@
+package com.drinkspeed.service;
+
+import com.drinkspeed.domain.User;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 점수 기준 랭킹 인덱스 (기본: 소주 환산량)
+ * (점수 내림차순, ID 오름차순) 키를 갖는 크기 보강 트립(treap)으로,
+ * 갱신 O(log n), 상위 k명 조회 O(log n + k), 특정 사용자 순위 조회 O(log n)을 보장한다.
+ */
+public class RankingIndex {
+
+    private static final class Node {
+        final User user;
+        final long id;
+        final double score;
+        final int priority;
+        Node left;
+        Node right;
+        int size = 1;
+
+        Node(User user, double score) {
+            this.user = user;
+            this.id = user.getId();
+            this.score = score;
+            this.priority = ThreadLocalRandom.current().nextInt();
+        }
+    }
+
+    private final ToDoubleFunction<User> scoreFunction;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Node> nodes = new HashMap<>();
+    private Node root;
+
+    public RankingIndex() {
+        this(User::getTotalSojuEquivalent);
+    }
+
+    /**
+     * 지수 감쇠 속도 기준 인덱스 (DrinkPace.decayScore)
+     */
+    public static RankingIndex byPace() {
+        return new RankingIndex(user -> user.getPace().decayScore());
+    }
+
+    /**
+     * @param scoreFunction 사용자 점수 (다음 update 전까지 값이 바뀌지 않아야 한다)
+     */
+    public RankingIndex(ToDoubleFunction<User> scoreFunction) {
+        this.scoreFunction = scoreFunction;
+    }
+
+    /**
+     * 사용자 점수 반영 (신규 등록 포함)
+     * 점수는 쓰기 락 안에서 읽으므로 동시 갱신 시 마지막 갱신 값이 인덱스에 남는다.
+     */
+    public void update(User user) {
+        lock.writeLock().lock();
+        try {
+            double score = scoreFunction.applyAsDouble(user);
+            Node existing = nodes.get(user.getId());
+            if (existing != null) {
+                if (existing.score == score) {
+                    return;
+                }
+                root = delete(root, existing.score, existing.id);
+            }
+            Node node = new Node(user, score);
+            Node[] parts = split(root, score, node.id);
+            root = merge(merge(parts[0], node), parts[1]);
+            nodes.put(node.id, node);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 사용자 제거
+     */
+    public void remove(Long userId) {
+        lock.writeLock().lock();
+        try {
+            Node existing = nodes.remove(userId);
+            if (existing != null) {
+                root = delete(root, existing.score, existing.id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 순위 구간 조회 (0부터 시작하는 offset 기준 limit명)
+     */
+    public List<User> range(int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            int from = Math.max(0, offset);
+            int to = (int) Math.min((long) from + Math.max(0, limit), size(root));
+            List<User> result = new ArrayList<>(Math.max(0, to - from));
+            collect(root, from, to, 0, result);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 사용자 순위 조회 (0부터 시작, 인덱스에 없으면 -1)
+     */
+    public int rankOf(Long userId) {
+        lock.readLock().lock();
+        try {
+            Node target = nodes.get(userId);
+            if (target == null) {
+                return -1;
+            }
+            int rank = 0;
+            Node t = root;
+            while (t != null) {
+                int c = compare(target.score, target.id, t.score, t.id);
+                if (c == 0) {
+                    return rank + size(t.left);
+                }
+                if (c < 0) {
+                    t = t.left;
+                } else {
+                    rank += size(t.left) + 1;
+                    t = t.right;
+                }
+            }
+            return -1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size(root);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static int compare(double aScore, long aId, double bScore, long bId) {
+        int c = Double.compare(bScore, aScore);
+        return c != 0 ? c : Long.compare(aId, bId);
+    }
+
+    private static int size(Node t) {
+        return t == null ? 0 : t.size;
+    }
+
+    private static Node pull(Node t) {
+        t.size = 1 + size(t.left) + size(t.right);
+        return t;
+    }
+
+    /**
+     * 키 기준 분할: [키보다 앞선 노드들, 키 이상 노드들]
+     */
+    private static Node[] split(Node t, double score, long id) {
+        if (t == null) {
+            return new Node[] { null, null };
+        }
+        if (compare(t.score, t.id, score, id) < 0) {
+            Node[] parts = split(t.right, score, id);
+            t.right = parts[0];
+            parts[0] = pull(t);
+            return parts;
+        }
+        Node[] parts = split(t.left, score, id);
+        t.left = parts[1];
+        parts[1] = pull(t);
+        return parts;
+    }
+
+    private static Node merge(Node a, Node b) {
+        if (a == null)
+            return b;
+        if (b == null)
+            return a;
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            return pull(a);
+        }
+        b.left = merge(a, b.left);
+        return pull(b);
+    }
+
+    private static Node delete(Node t, double score, long id) {
+        if (t == null) {
+            return null;
+        }
+        int c = compare(score, id, t.score, t.id);
+        if (c == 0) {
+            return merge(t.left, t.right);
+        }
+        if (c < 0) {
+            t.left = delete(t.left, score, id);
+        } else {
+            t.right = delete(t.right, score, id);
+        }
+        return pull(t);
+    }
+
+    /**
+     * 중위 순회 중 [from, to) 구간에 해당하는 노드만 수집
+     */
+    private static void collect(Node t, int from, int to, int base, List<User> out) {
+        if (t == null || base >= to || base + t.size <= from) {
+            return;
+        }
+        int index = base + size(t.left);
+        collect(t.left, from, to, base, out);
+        if (index >= from && index < to) {
+            out.add(t.user);
+        }
+        collect(t.right, from, to, index + 1, out);
+    }
+}
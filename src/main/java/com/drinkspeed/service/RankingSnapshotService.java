@@ -0,0 +1,142 @@
+package com.drinkspeed.service;
+
+import com.drinkspeed.domain.RankingSort;
+import com.drinkspeed.dto.RankingResponse;
+import com.drinkspeed.event.RankingChangedEvent;
+import com.drinkspeed.event.RoomDroppedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 미리 직렬화한 전체 랭킹 스냅샷
+ *
+ * 랭킹(전체 / 방)마다 RankingResponse 목록을 JSON 바이트와 ETag 로 만들어 두고,
+ * 변경이 있어도 min-interval-ms 에 한 번만 다시 만든다. 시속은 변경이 없어도 시간에 따라 바뀌므로
+ * max-age-ms 가 지나면 다시 만든다. 폴링 클라이언트는 ETag 비교만으로 304 를 받는다.
+ * 클러스터 모드의 전체 랭킹은 노드별 상위 cluster.ranking.top-k 명을 병합하고, 다른 노드의 변경은 알 수 없으므로
+ * 이 노드에 변경이 없어도 cluster-max-age-ms 가 지나면 다시 병합한다.
+ * 다시 만드는 동안(다른 노드 호출 포함) 같은 랭킹의 다른 요청은 이전 스냅샷을 받고, 이전 스냅샷이 없을 때만 기다린다.
+ */
+@Service
+public class RankingSnapshotService {
+
+    // 방에 속하지 않은 사용자 랭킹의 키 (방 ID 는 1 부터 시작)
+    private static final long LOBBY_KEY = 0L;
+
+    /**
+     * 불변 랭킹 스냅샷
+     */
+    public record Snapshot(long version, String etag, byte[] body, long builtAtMillis) {
+    }
+
+    private final UserService userService;
+    private final ClusterService clusterService;
+    private final ObjectMapper objectMapper;
+    private final long minIntervalMs;
+    private final long maxAgeMs;
+    private final long clusterMaxAgeMs;
+
+    private final Map<Long, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<Long, CompletableFuture<Snapshot>> building = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final AtomicLong version = new AtomicLong();
+
+    public RankingSnapshotService(UserService userService, ClusterService clusterService, ObjectMapper objectMapper,
+            @Value("${ranking.snapshot.min-interval-ms:500}") long minIntervalMs,
+            @Value("${ranking.snapshot.max-age-ms:10000}") long maxAgeMs,
+            @Value("${ranking.snapshot.cluster-max-age-ms:2000}") long clusterMaxAgeMs) {
+        this.userService = userService;
+        this.clusterService = clusterService;
+        this.objectMapper = objectMapper;
+        this.minIntervalMs = minIntervalMs;
+        this.maxAgeMs = maxAgeMs;
+        this.clusterMaxAgeMs = clusterMaxAgeMs;
+    }
+
+    /**
+     * 현재 스냅샷 (roomId 가 null 이면 방에 속하지 않은 사용자 랭킹)
+     */
+    public Snapshot current(Long roomId) {
+        long key = roomId != null ? roomId : LOBBY_KEY;
+        long now = System.currentTimeMillis();
+        Snapshot snapshot = snapshots.get(key);
+        if (isFresh(key, snapshot, now)) {
+            return snapshot;
+        }
+        // 한 요청만 다시 만든다. (맵 락을 잡은 채 다른 노드를 호출하지 않도록 compute 밖에서 만든다)
+        CompletableFuture<Snapshot> mine = new CompletableFuture<>();
+        CompletableFuture<Snapshot> inFlight = building.putIfAbsent(key, mine);
+        if (inFlight != null) {
+            if (snapshot != null) {
+                return snapshot;
+            }
+            try {
+                return inFlight.join();
+            } catch (CompletionException e) {
+                throw (RuntimeException) e.getCause();
+            }
+        }
+        try {
+            Snapshot latest = snapshots.get(key);
+            if (!isFresh(key, latest, now)) {
+                latest = build(key, roomId, now);
+                snapshots.put(key, latest);
+            }
+            mine.complete(latest);
+            return latest;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            building.remove(key, mine);
+        }
+    }
+
+    @EventListener
+    public void onRankingChanged(RankingChangedEvent event) {
+        dirty.add(event.roomId() != null ? event.roomId() : LOBBY_KEY);
+    }
+
+    @EventListener
+    public void onRoomDropped(RoomDroppedEvent event) {
+        snapshots.remove(event.roomId());
+        dirty.remove(event.roomId());
+    }
+
+    private boolean isFresh(long key, Snapshot snapshot, long now) {
+        if (snapshot == null) {
+            return false;
+        }
+        long age = now - snapshot.builtAtMillis();
+        long maxAge = key == LOBBY_KEY && clusterService.isEnabled() ? Math.min(maxAgeMs, clusterMaxAgeMs) : maxAgeMs;
+        return age < maxAge && (age < minIntervalMs || !dirty.contains(key));
+    }
+
+    private Snapshot build(long key, Long roomId, long now) {
+        // 읽기 전에 지워야 빌드 중에 들어온 변경이 다음 빌드에 반영된다.
+        dirty.remove(key);
+        List<RankingResponse> rankings = roomId == null && clusterService.isEnabled()
+                ? clusterService.globalRankings(RankingSort.TOTAL, 0, clusterService.rankingTopK(),
+                        k -> userService.getRankingResponses(null, RankingSort.TOTAL, 0, k))
+                : userService.getRankingResponses(roomId, RankingSort.TOTAL, 0, Integer.MAX_VALUE);
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(rankings);
+            String etag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+            return new Snapshot(version.incrementAndGet(), etag, body, now);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("랭킹 스냅샷 직렬화에 실패했습니다.", e);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.drinkspeed.service;
+
+import com.drinkspeed.domain.User;
+import com.drinkspeed.dto.RankingResponse;
+import com.drinkspeed.event.AiMessagePartialEvent;
+import com.drinkspeed.event.AiMessageReadyEvent;
+import com.drinkspeed.event.CharacterLevelChangedEvent;
+import com.drinkspeed.event.RankingChangedEvent;
+import com.drinkspeed.event.RoomDroppedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 랭킹 변경분과 AI 메시지(스트리밍 부분 텍스트, 완료)를 SSE 로 푸시하는 서비스
+ * 변경된 사용자 ID 만 모아 두었다가 min-interval-ms 마다 한 번에 델타로 전송한다.
+ * 델타는 랭킹(전체 / 방) 단위로 나누어 해당 랭킹 구독자에게만 보낸다.
+ */
+@Service
+public class RankingStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RankingStreamService.class);
+
+    private record Subscriber(SseEmitter emitter, Long userId, Long roomId) {
+    }
+
+    private record ChangedUser(Long userId, Long roomId) {
+    }
+
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final long emitterTimeoutMs;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final Set<ChangedUser> changedUsers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong version = new AtomicLong();
+
+    public RankingStreamService(UserService userService, ObjectMapper objectMapper,
+            @Value("${ranking.stream.emitter-timeout-ms:1800000}") long emitterTimeoutMs) {
+        this.userService = userService;
+        this.objectMapper = objectMapper;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+    }
+
+    /**
+     * 구독 등록 (userId 를 지정하면 해당 사용자의 ai-message-ready 이벤트도 수신,
+     * roomId 를 지정하면 해당 방 랭킹을 구독)
+     */
+    public SseEmitter subscribe(Long userId, Long roomId) {
+        List<User> rankings = roomId != null
+                ? userService.getRoomRankings(roomId, 0, Integer.MAX_VALUE)
+                : userService.getRankings();
+
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, userId, roomId);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        // 최초 구독 시 전체 랭킹을 한 번 내려준 뒤부터는 델타만 보낸다.
+        List<RankingResponse> snapshot = new ArrayList<>(rankings.size());
+        for (int i = 0; i < rankings.size(); i++) {
+            snapshot.add(userService.toRankingResponse(rankings.get(i), i + 1));
+        }
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("version", version.get());
+        payload.put("rankings", snapshot);
+        send(subscriber, "ranking-snapshot", toJson(payload));
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @EventListener
+    public void onRankingChanged(RankingChangedEvent event) {
+        changedUsers.add(new ChangedUser(event.userId(), event.roomId()));
+    }
+
+    @EventListener
+    public void onRoomDropped(RoomDroppedEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            if (event.roomId().equals(subscriber.roomId())) {
+                subscribers.remove(subscriber);
+                subscriber.emitter().complete();
+            }
+        }
+    }
+
+    @EventListener
+    public void onAiMessageReady(AiMessageReadyEvent event) {
+        String data = null;
+        for (Subscriber subscriber : subscribers) {
+            if (event.userId().equals(subscriber.userId())) {
+                if (data == null) {
+                    data = toJson(event);
+                }
+                send(subscriber, "ai-message-ready", data);
+            }
+        }
+    }
+
+    @EventListener
+    public void onAiMessagePartial(AiMessagePartialEvent event) {
+        String data = null;
+        for (Subscriber subscriber : subscribers) {
+            if (event.userId().equals(subscriber.userId())) {
+                if (data == null) {
+                    data = toJson(event);
+                }
+                send(subscriber, "ai-message-partial", data);
+            }
+        }
+    }
+
+    @EventListener
+    public void onCharacterLevelChanged(CharacterLevelChangedEvent event) {
+        String data = null;
+        for (Subscriber subscriber : subscribers) {
+            if (event.userId().equals(subscriber.userId())) {
+                if (data == null) {
+                    data = toJson(event);
+                }
+                send(subscriber, "level-changed", data);
+            }
+        }
+    }
+
+    /**
+     * 누적된 변경분을 하나의 ranking-delta 이벤트로 전송
+     * 구독자가 없는 랭킹의 변경분은 버린다. (새 구독자는 전체 랭킹을 먼저 받는다)
+     */
+    @Scheduled(fixedDelayString = "${ranking.stream.min-interval-ms:1000}")
+    public void flushRankingDelta() {
+        if (changedUsers.isEmpty()) {
+            return;
+        }
+        if (subscribers.isEmpty()) {
+            changedUsers.clear();
+            return;
+        }
+        // 구독 중인 랭킹(방), 전체 랭킹은 null
+        Set<Long> subscribedRooms = new HashSet<>();
+        for (Subscriber subscriber : subscribers) {
+            subscribedRooms.add(subscriber.roomId());
+        }
+        // 랭킹(방) 별 변경분, 전체 랭킹은 null 키
+        Map<Long, List<RankingResponse>> changesByRoom = new HashMap<>();
+        for (ChangedUser changed : changedUsers) {
+            changedUsers.remove(changed);
+            if (!subscribedRooms.contains(changed.roomId())) {
+                continue;
+            }
+            int rank = userService.getRank(changed.userId());
+            if (rank <= 0) {
+                continue;
+            }
+            User user;
+            try {
+                user = userService.findUserById(changed.userId());
+            } catch (IllegalArgumentException e) {
+                // 그 사이 방이 종료되어 사라진 사용자는 건너뛴다.
+                logger.debug("Skipping ranking delta for missing user {}", changed.userId());
+                continue;
+            }
+            changesByRoom.computeIfAbsent(changed.roomId(), k -> new ArrayList<>())
+                    .add(userService.toRankingResponse(user, rank));
+        }
+        if (changesByRoom.isEmpty()) {
+            return;
+        }
+
+        long deltaVersion = version.incrementAndGet();
+        Map<Long, String> dataByRoom = new HashMap<>();
+        for (Subscriber subscriber : subscribers) {
+            List<RankingResponse> changes = changesByRoom.get(subscriber.roomId());
+            if (changes == null) {
+                continue;
+            }
+            String data = dataByRoom.computeIfAbsent(subscriber.roomId(), k -> {
+                Map<String, Object> payload = new LinkedHashMap<>();
+                payload.put("version", deltaVersion);
+                payload.put("changes", changes);
+                return toJson(payload);
+            });
+            send(subscriber, "ranking-delta", data);
+        }
+    }
+
+    private void send(Subscriber subscriber, String eventName, String data) {
+        try {
+            subscriber.emitter().send(SseEmitter.event()
+                    .name(eventName)
+                    .data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Dropping SSE subscriber: {}", e.getMessage());
+            subscribers.remove(subscriber);
+        }
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("SSE 이벤트 직렬화에 실패했습니다.", e);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.drinkspeed.service;
+
+import com.drinkspeed.exception.RateLimitExceededException;
+import com.drinkspeed.util.TokenBucketLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 쓰기 요청 한도 (클라이언트 IP 또는 사용자 ID 별 토큰 버킷)
+ *
+ * - CREATE: 사용자 / 방 생성, 클라이언트 IP 기준
+ * - CLIENT: 잔 추가 / 일괄 추가 / 종료 전체, 클라이언트 IP 기준 (여러 사용자 ID 를 돌려 쓰는 요청 제한)
+ * - DRINK: 잔 추가, 사용자 ID 기준 (단건은 토큰 1개, 일괄 추가는 사용자별 항목 수만큼)
+ * - FINISH: 종료, 사용자 ID 기준
+ * - AI: 종료 시 Gemini 호출, 클라이언트 IP 기준 (초과하면 종료는 처리하고 기본 메시지로 대체)
+ * 사용자 ID 기준 한도는 기본으로 켜고(rate-limit.enabled), IP 기준 한도는 NAT 뒤 사용자들이 함께 쓰므로
+ * 따로 꺼 둔다(rate-limit.client-keyed.enabled).
+ */
+@Service
+public class RateLimitService {
+
+    public enum Budget {
+        CREATE(true),
+        CLIENT(true),
+        DRINK(false),
+        FINISH(false),
+        AI(true);
+
+        private final boolean clientKeyed;
+
+        Budget(boolean clientKeyed) {
+            this.clientKeyed = clientKeyed;
+        }
+    }
+
+    private static final String FORWARDED_FOR_HEADER = "X-Forwarded-For";
+
+    private final boolean enabled;
+    private final boolean clientKeyedEnabled;
+    private final boolean trustForwardedFor;
+    private final ClusterService clusterService;
+    private final Map<Budget, TokenBucketLimiter> limiters = new EnumMap<>(Budget.class);
+    private final Map<Budget, Counter> rejected = new EnumMap<>(Budget.class);
+
+    public RateLimitService(MeterRegistry meterRegistry, ClusterService clusterService,
+            @Value("${rate-limit.enabled:true}") boolean enabled,
+            @Value("${rate-limit.client-keyed.enabled:false}") boolean clientKeyedEnabled,
+            @Value("${rate-limit.trust-forwarded-for:false}") boolean trustForwardedFor,
+            @Value("${rate-limit.stripes:64}") int stripes,
+            @Value("${rate-limit.max-keys-per-stripe:1024}") int maxKeysPerStripe,
+            @Value("${rate-limit.create.capacity:20}") double createCapacity,
+            @Value("${rate-limit.create.refill-per-minute:10}") double createRefillPerMinute,
+            @Value("${rate-limit.client.capacity:120}") double clientCapacity,
+            @Value("${rate-limit.client.refill-per-minute:600}") double clientRefillPerMinute,
+            @Value("${rate-limit.drink.capacity:30}") double drinkCapacity,
+            @Value("${rate-limit.drink.refill-per-minute:120}") double drinkRefillPerMinute,
+            @Value("${rate-limit.finish.capacity:3}") double finishCapacity,
+            @Value("${rate-limit.finish.refill-per-minute:2}") double finishRefillPerMinute,
+            @Value("${rate-limit.ai.capacity:10}") double aiCapacity,
+            @Value("${rate-limit.ai.refill-per-minute:5}") double aiRefillPerMinute) {
+        this.enabled = enabled;
+        this.clientKeyedEnabled = clientKeyedEnabled;
+        this.trustForwardedFor = trustForwardedFor;
+        this.clusterService = clusterService;
+        limiters.put(Budget.CREATE, new TokenBucketLimiter(createCapacity, createRefillPerMinute / 60.0, stripes,
+                maxKeysPerStripe));
+        limiters.put(Budget.CLIENT, new TokenBucketLimiter(clientCapacity, clientRefillPerMinute / 60.0, stripes,
+                maxKeysPerStripe));
+        limiters.put(Budget.DRINK, new TokenBucketLimiter(drinkCapacity, drinkRefillPerMinute / 60.0, stripes,
+                maxKeysPerStripe));
+        limiters.put(Budget.FINISH, new TokenBucketLimiter(finishCapacity, finishRefillPerMinute / 60.0, stripes,
+                maxKeysPerStripe));
+        limiters.put(Budget.AI, new TokenBucketLimiter(aiCapacity, aiRefillPerMinute / 60.0, stripes,
+                maxKeysPerStripe));
+        for (Budget budget : Budget.values()) {
+            rejected.put(budget, Counter.builder("rate-limit.rejected")
+                    .description("요청 한도 초과로 거절(AI 는 기본 메시지로 대체)한 요청 수")
+                    .tag("budget", budget.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * 토큰 사용, 한도를 넘으면 RateLimitExceededException (429)
+     */
+    public void acquire(Budget budget, Object key) {
+        acquire(budget, key, 1);
+    }
+
+    /**
+     * 토큰 permits 개 사용, 한도를 넘으면 RateLimitExceededException (429)
+     */
+    public void acquire(Budget budget, Object key, int permits) {
+        long waitNanos = waitNanos(budget, key, permits);
+        if (waitNanos > 0L) {
+            throw new RateLimitExceededException("요청이 너무 많습니다. 잠시 후 다시 시도해 주세요.",
+                    Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)));
+        }
+    }
+
+    /**
+     * 토큰 사용 (한도를 넘으면 false)
+     */
+    public boolean tryAcquire(Budget budget, Object key) {
+        return waitNanos(budget, key, 1) == 0L;
+    }
+
+    /**
+     * 요청한 클라이언트 키 (X-Forwarded-For 는 설정으로 신뢰하거나 다른 노드가 전달한 요청일 때만 사용)
+     */
+    public String clientKey(HttpServletRequest request) {
+        String forwardedFor = request.getHeader(FORWARDED_FOR_HEADER);
+        if (forwardedFor != null && !forwardedFor.isBlank()
+                && (trustForwardedFor || clusterService.isPeerRequest(request))) {
+            int comma = forwardedFor.indexOf(',');
+            return (comma >= 0 ? forwardedFor.substring(0, comma) : forwardedFor).trim();
+        }
+        return request.getRemoteAddr();
+    }
+
+    private long waitNanos(Budget budget, Object key, int permits) {
+        if (!enabled || (budget.clientKeyed && !clientKeyedEnabled)) {
+            return 0L;
+        }
+        long waitNanos = limiters.get(budget).tryAcquire(key, permits);
+        if (waitNanos > 0L) {
+            rejected.get(budget).increment();
+        }
+        return waitNanos;
+    }
+}
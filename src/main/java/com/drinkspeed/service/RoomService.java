@@ -0,0 +1,231 @@
+package com.drinkspeed.service;
+
+import com.drinkspeed.domain.Room;
+import com.drinkspeed.domain.User;
+import com.drinkspeed.event.RoomDroppedEvent;
+import com.drinkspeed.persistence.RoomSnapshot;
+import com.drinkspeed.persistence.UserEvent;
+import com.drinkspeed.persistence.UserEventLog;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 방(술자리) 단위 사용자 저장소와 랭킹 관리
+ *
+ * 방마다 독립된 사용자 맵과 랭킹 인덱스를 두어 다른 방과 락/조회 비용을 공유하지 않는다.
+ * 방 종료 시에는 방 파티션 하나만 떼어내므로 방 크기와 관계없이 O(1) 이다.
+ * 사용자 ID -> 방 ID 디렉터리의 남은 항목은 조회 시 또는 주기적인 정리 작업에서 제거한다.
+ */
+@Service
+@RequiredArgsConstructor
+public class RoomService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoomService.class);
+
+    /**
+     * 방 하나의 상태 (방 종료 시 통째로 버린다)
+     */
+    private static final class Partition {
+        private final Room room;
+        private final Map<Long, User> users = new ConcurrentHashMap<>();
+        private final RankingIndex rankingIndex = new RankingIndex();
+        private final RankingIndex paceIndex = RankingIndex.byPace();
+
+        private Partition(Room room) {
+            this.room = room;
+        }
+    }
+
+    private final Map<Long, Partition> rooms = new ConcurrentHashMap<>();
+    private final Map<Long, Long> userRooms = new ConcurrentHashMap<>();
+    private final AtomicLong roomIdCounter = new AtomicLong();
+
+    private final UserEventLog userEventLog;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ClusterService clusterService;
+
+    /**
+     * 방 생성
+     */
+    public Room createRoom(String name) {
+        long newId = clusterService.isEnabled() ? clusterService.nextOwnedId() : roomIdCounter.incrementAndGet();
+        LocalDateTime createdAt = LocalDateTime.now();
+        Room room = Room.builder()
+                .id(newId)
+                .name(name)
+                .createdAt(createdAt)
+                .build();
+        userEventLog.record(UserEvent.roomCreated(newId, name, UserService.toEpochMillis(createdAt)),
+                () -> restoreRoom(room));
+        logger.info("Created new room: {} (ID: {})", name, newId);
+        return room;
+    }
+
+    /**
+     * 방 조회
+     */
+    public Room findRoomById(Long roomId) {
+        return partition(roomId).room;
+    }
+
+    /**
+     * 진행 중인 방 목록 (생성 순)
+     */
+    public List<Room> getRooms() {
+        List<Room> result = new ArrayList<>(rooms.size());
+        for (Partition partition : rooms.values()) {
+            result.add(partition.room);
+        }
+        result.sort(Comparator.comparing(Room::getId));
+        return result;
+    }
+
+    /**
+     * 방 인원 수
+     */
+    public int userCount(Long roomId) {
+        return partition(roomId).users.size();
+    }
+
+    /**
+     * 진행 중인 방 수
+     */
+    public int roomCount() {
+        return rooms.size();
+    }
+
+    /**
+     * 모든 방의 인원 수 합계
+     */
+    public int totalUserCount() {
+        int count = 0;
+        for (Partition partition : rooms.values()) {
+            count += partition.users.size();
+        }
+        return count;
+    }
+
+    /**
+     * 방 종료 (방의 사용자와 랭킹 상태를 한 번에 제거)
+     */
+    public void dropRoom(Long roomId) {
+        Room room = findRoomById(roomId);
+        userEventLog.record(UserEvent.roomDropped(roomId, System.currentTimeMillis()), () -> removeRoom(roomId));
+        eventPublisher.publishEvent(new RoomDroppedEvent(roomId));
+        logger.info("Dropped room: {} (ID: {})", room.getName(), roomId);
+    }
+
+    /**
+     * 종료된 방을 가리키는 사용자 디렉터리 항목 정리
+     */
+    @Scheduled(fixedDelayString = "${room.directory-sweep-interval-ms:60000}")
+    public void sweepUserDirectory() {
+        userRooms.values().removeIf(roomId -> !rooms.containsKey(roomId));
+    }
+
+    /**
+     * 방에 사용자 등록 (방 ID 는 사용자에 설정되어 있어야 한다)
+     */
+    void addUser(User user) {
+        Partition partition = partition(user.getRoomId());
+        partition.users.put(user.getId(), user);
+        userRooms.put(user.getId(), user.getRoomId());
+    }
+
+    /**
+     * 방에서 사용자 제거 (메모리에서 내보낼 때)
+     */
+    void removeUser(User user) {
+        Partition partition = rooms.get(user.getRoomId());
+        if (partition != null) {
+            partition.users.remove(user.getId());
+            partition.rankingIndex.remove(user.getId());
+            partition.paceIndex.remove(user.getId());
+        }
+        userRooms.remove(user.getId());
+    }
+
+    /**
+     * 방에 속한 사용자 조회 (없거나 방이 종료되었으면 null)
+     */
+    User findUser(Long userId) {
+        Long roomId = userRooms.get(userId);
+        if (roomId == null) {
+            return null;
+        }
+        Partition partition = rooms.get(roomId);
+        if (partition == null) {
+            userRooms.remove(userId, roomId);
+            return null;
+        }
+        return partition.users.get(userId);
+    }
+
+    RankingIndex rankingIndex(Long roomId) {
+        return partition(roomId).rankingIndex;
+    }
+
+    RankingIndex paceIndex(Long roomId) {
+        return partition(roomId).paceIndex;
+    }
+
+    /**
+     * 모든 방의 사용자 (스냅샷/복구용)
+     */
+    List<User> allUsers() {
+        List<User> result = new ArrayList<>();
+        for (Partition partition : rooms.values()) {
+            result.addAll(partition.users.values());
+        }
+        return result;
+    }
+
+    /**
+     * 방의 사용자 (방이 없으면 빈 목록)
+     */
+    List<User> usersOf(Long roomId) {
+        Partition partition = rooms.get(roomId);
+        return partition != null ? new ArrayList<>(partition.users.values()) : List.of();
+    }
+
+    List<RoomSnapshot> toSnapshots() {
+        List<RoomSnapshot> result = new ArrayList<>(rooms.size());
+        for (Partition partition : rooms.values()) {
+            Room room = partition.room;
+            result.add(new RoomSnapshot(room.getId(), room.getName(), UserService.toEpochMillis(room.getCreatedAt())));
+        }
+        return result;
+    }
+
+    /**
+     * 방 상태 반영 (로그 기록 없이, 복구 시에도 사용)
+     */
+    void restoreRoom(Room room) {
+        rooms.put(room.getId(), new Partition(room));
+        roomIdCounter.accumulateAndGet(room.getId(), Math::max);
+    }
+
+    void removeRoom(Long roomId) {
+        rooms.remove(roomId);
+    }
+
+    private Partition partition(Long roomId) {
+        Partition partition = roomId != null ? rooms.get(roomId) : null;
+        if (partition == null) {
+            throw new IllegalArgumentException("방을 찾을 수 없습니다: " + roomId);
+        }
+        return partition;
+    }
+}
@@ -0,0 +1,168 @@
+package com.drinkspeed.service;
+
+import com.drinkspeed.domain.AiMessageStatus;
+import com.drinkspeed.domain.User;
+import com.drinkspeed.event.RoomDroppedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 공유 링크(GET /api/users/{userId}) 응답 캐시
+ *
+ * 종료되고 AI 메시지까지 확정(DONE / FALLBACK)된 사용자는 더 바뀌지 않으므로,
+ * 응답 JSON 을 한 번만 직렬화(gzip-min-bytes 이상이면 gzip 본도 함께)해 ETag 와 함께 LRU 로 보관한다.
+ * 진행 중이거나 AI 메시지를 기다리는 사용자는 캐시하지 않는다.
+ * 종료된 사용자는 UserService 가 변경을 거절하지만, 만든 뒤 값이 바뀌었으면(지문 불일치) 다시 직렬화한다.
+ */
+@Service
+public class SharePayloadCache {
+
+    /**
+     * 불변 공유 응답 (gzipBody 는 압축하지 않으면 null, fingerprint 는 직렬화할 때의 사용자 상태)
+     */
+    public record SharePayload(String etag, byte[] body, String gzipEtag, byte[] gzipBody, Long roomId,
+            long fingerprint) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int maxEntries;
+    private final int gzipMinBytes;
+    private final long maxAgeSeconds;
+
+    private final LinkedHashMap<Long, SharePayload> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public SharePayloadCache(ObjectMapper objectMapper,
+            @Value("${share.cache.enabled:true}") boolean enabled,
+            @Value("${share.cache.max-entries:10000}") int maxEntries,
+            @Value("${share.cache.gzip-min-bytes:512}") int gzipMinBytes,
+            @Value("${share.cache.max-age-seconds:86400}") long maxAgeSeconds) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.gzipMinBytes = gzipMinBytes;
+        this.maxAgeSeconds = maxAgeSeconds;
+    }
+
+    /**
+     * 확정된 공유 응답의 Cache-Control max-age (초)
+     */
+    public long maxAgeSeconds() {
+        return maxAgeSeconds;
+    }
+
+    /**
+     * 확정된 사용자의 공유 응답 (아직 바뀔 수 있는 사용자면 null)
+     */
+    public SharePayload get(User user) {
+        if (!enabled || !isFrozen(user)) {
+            return null;
+        }
+        synchronized (entries) {
+            SharePayload payload = entries.get(user.getId());
+            if (payload != null && payload.fingerprint() == fingerprint(user)) {
+                hits.increment();
+                return payload;
+            }
+        }
+        misses.increment();
+        // 직렬화는 락 밖에서 한다. (같은 사용자를 동시에 만들어도 결과는 같다)
+        SharePayload payload = render(user);
+        synchronized (entries) {
+            entries.put(user.getId(), payload);
+            Iterator<Map.Entry<Long, SharePayload>> eldest = entries.entrySet().iterator();
+            while (entries.size() > maxEntries && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+        return payload;
+    }
+
+    /**
+     * 종료된 방의 사용자는 더 조회되지 않으므로 버린다.
+     */
+    @EventListener
+    public void onRoomDropped(RoomDroppedEvent event) {
+        synchronized (entries) {
+            entries.values().removeIf(payload -> event.roomId().equals(payload.roomId()));
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("evictions", evictions.sum());
+        stats.put("hitRatio", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        synchronized (entries) {
+            stats.put("size", entries.size());
+        }
+        return stats;
+    }
+
+    private static boolean isFrozen(User user) {
+        AiMessageStatus status = user.getAiMessageStatus();
+        return user.isFinished() && (status == AiMessageStatus.DONE || status == AiMessageStatus.FALLBACK);
+    }
+
+    /**
+     * 공유 응답에 영향을 주는 값의 지문 (종료 시각, 누적 잔 수, AI 메시지)
+     */
+    private static long fingerprint(User user) {
+        long hash = user.getFinishedAtMillis();
+        hash = 31 * hash + Double.doubleToLongBits(user.getTotalSojuEquivalent());
+        hash = 31 * hash + user.getAiMessageStatus().ordinal();
+        hash = 31 * hash + (user.getAiMessage() != null ? user.getAiMessage().hashCode() : 0);
+        return hash;
+    }
+
+    private SharePayload render(User user) {
+        // 직렬화 중에 값이 바뀌면 다음 조회에서 지문이 맞지 않아 다시 만든다.
+        long fingerprint = fingerprint(user);
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(user);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("공유 응답 직렬화에 실패했습니다.", e);
+        }
+        String hash = DigestUtils.md5DigestAsHex(body);
+        byte[] gzipBody = body.length >= gzipMinBytes ? gzip(body) : null;
+        if (gzipBody != null && gzipBody.length >= body.length) {
+            gzipBody = null;
+        }
+        // 표현(압축 여부)마다 바이트가 다르므로 강한 ETag 도 다르게 둔다.
+        return new SharePayload("\"" + hash + "\"", body,
+                gzipBody != null ? "\"" + hash + "-gzip\"" : null, gzipBody, user.getRoomId(), fingerprint);
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
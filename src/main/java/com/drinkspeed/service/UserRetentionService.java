@@ -0,0 +1,158 @@
+package com.drinkspeed.service;
+
+import com.drinkspeed.domain.AiMessageStatus;
+import com.drinkspeed.domain.User;
+import com.drinkspeed.persistence.UserArchive;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 종료된 사용자 보관 정책 (메모리 상한)
+ *
+ * 종료 후 ttl 이 지난 사용자를 내보내고, 그래도 max-entries / max-bytes 를 넘으면
+ * 오래전에 종료된 사용자부터 내보낸다. 진행 중이거나 AI 메시지 생성이 끝나지 않은 사용자는 대상이 아니다.
+ * 내보낸 사용자는 아카이브가 켜져 있으면 GET /api/users/{userId} 로 계속 조회된다.
+ */
+@Service
+public class UserRetentionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserRetentionService.class);
+
+    // 사용자 한 명의 고정 크기 추정치 (객체 헤더, 필드, 잔 수 배열, 속도 링 버퍼, 맵 엔트리, 랭킹 노드 2개)
+    private static final long USER_BASE_BYTES = 1024L;
+
+    private final UserService userService;
+    private final UserArchive userArchive;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final int maxEntries;
+    private final long maxBytes;
+
+    private final LongAdder evictedByTtl = new LongAdder();
+    private final LongAdder evictedBySize = new LongAdder();
+    private volatile int liveUsers;
+    private volatile long estimatedBytes;
+
+    public UserRetentionService(UserService userService, UserArchive userArchive,
+            @Value("${store.retention.enabled:false}") boolean enabled,
+            @Value("${store.retention.ttl-minutes:360}") long ttlMinutes,
+            @Value("${store.retention.max-entries:100000}") int maxEntries,
+            @Value("${store.retention.max-bytes:268435456}") long maxBytes) {
+        this.userService = userService;
+        this.userArchive = userArchive;
+        this.enabled = enabled;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * 보관 정책 적용
+     */
+    @Scheduled(fixedDelayString = "${store.retention.sweep-interval-ms:60000}")
+    public void sweep() {
+        List<User> users = userService.getLiveUsers();
+        long bytes = 0L;
+        for (User user : users) {
+            bytes += estimateBytes(user);
+        }
+        if (!enabled) {
+            liveUsers = users.size();
+            estimatedBytes = bytes;
+            return;
+        }
+
+        // 종료 시각이 오래된 순
+        List<User> candidates = new ArrayList<>();
+        for (User user : users) {
+            if (isEvictable(user)) {
+                candidates.add(user);
+            }
+        }
+        candidates.sort(Comparator.comparing(User::getFinishedAt));
+
+        LocalDateTime expiredBefore = LocalDateTime.now().minus(ttl);
+        int remaining = users.size();
+        int byTtl = 0;
+        int bySize = 0;
+        for (User user : candidates) {
+            boolean expired = user.getFinishedAt().isBefore(expiredBefore);
+            if (!expired && remaining <= maxEntries && bytes <= maxBytes) {
+                break;
+            }
+            try {
+                userService.evictUser(user);
+            } catch (RuntimeException e) {
+                logger.error("Failed to evict user {}", user.getId(), e);
+                break;
+            }
+            remaining--;
+            bytes -= estimateBytes(user);
+            if (expired) {
+                byTtl++;
+            } else {
+                bySize++;
+            }
+        }
+        evictedByTtl.add(byTtl);
+        evictedBySize.add(bySize);
+        liveUsers = remaining;
+        estimatedBytes = bytes;
+
+        if (byTtl + bySize > 0) {
+            logger.info("Evicted {} expired and {} over-limit users ({} remaining, ~{} bytes)",
+                    byTtl, bySize, remaining, bytes);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("retentionEnabled", enabled);
+        stats.put("liveUsers", liveUsers);
+        stats.put("estimatedBytes", estimatedBytes);
+        stats.put("maxEntries", maxEntries);
+        stats.put("maxBytes", maxBytes);
+        stats.put("evictedByTtl", evictedByTtl.sum());
+        stats.put("evictedBySize", evictedBySize.sum());
+        stats.put("archivedUsers", userArchive.isEnabled() ? userArchive.size() : 0);
+        stats.put("archiveBytes", userArchive.isEnabled() ? userArchive.sizeBytes() : 0L);
+        stats.put("heapUsedBytes", heap.getUsed());
+        stats.put("heapCommittedBytes", heap.getCommitted());
+        stats.put("heapMaxBytes", heap.getMax());
+        return stats;
+    }
+
+    private static boolean isEvictable(User user) {
+        return user.isFinished() && (user.getAiMessageStatus() == AiMessageStatus.DONE
+                || user.getAiMessageStatus() == AiMessageStatus.FALLBACK);
+    }
+
+    /**
+     * 사용자 한 명의 힙 사용량 추정 (문자열은 UTF-16 기준으로 넉넉하게 계산)
+     */
+    static long estimateBytes(User user) {
+        long bytes = USER_BASE_BYTES;
+        if (user.getUserName() != null) {
+            bytes += 2L * user.getUserName().length();
+        }
+        if (user.getAiMessage() != null) {
+            bytes += 2L * user.getAiMessage().length();
+        }
+        return bytes;
+    }
+}
@@ -1,22 +1,51 @@
 package com.drinkspeed.service;
 
+import com.drinkspeed.domain.AiMessageStatus;
+import com.drinkspeed.domain.DrinkType;
+import com.drinkspeed.domain.RankingSort;
+import com.drinkspeed.domain.Room;
 import com.drinkspeed.domain.User;
+import com.drinkspeed.dto.DrinkBatchResponse;
+import com.drinkspeed.dto.DrinkEntry;
+import com.drinkspeed.dto.RankingResponse;
+import com.drinkspeed.event.AiMessageReadyEvent;
+import com.drinkspeed.event.CharacterLevelChangedEvent;
+import com.drinkspeed.event.RankingChangedEvent;
+import com.drinkspeed.persistence.DrinkEventId;
+import com.drinkspeed.persistence.RoomSnapshot;
+import com.drinkspeed.persistence.UserArchive;
+import com.drinkspeed.persistence.UserEvent;
+import com.drinkspeed.persistence.UserEventLog;
+import com.drinkspeed.persistence.UserRepository;
+import com.drinkspeed.persistence.UserSnapshot;
+import com.drinkspeed.persistence.UserSnapshotMapper;
 import com.drinkspeed.util.AlcoholCalculator;
+import com.drinkspeed.util.DrinkTypeRegistry;
+import com.drinkspeed.util.PaceCalculator;
 import com.drinkspeed.util.RankingCalculator;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.time.Duration;
+import java.io.IOException;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
+import java.util.function.BooleanSupplier;
 
 @Service
 @RequiredArgsConstructor
@@ -24,77 +53,355 @@ public class UserService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
 
-    // In-memory data store
-    private final Map<Long, User> userStore = new ConcurrentHashMap<>();
+    // 일괄 잔 추가 요청 한 번의 최대 항목 수
+    private static final int MAX_BATCH_ENTRIES = 1000;
+
     private final AtomicLong idCounter = new AtomicLong();
+    // 진행 중(종료 전)인 사용자 (레벨 재계산 대상, 방 사용자 포함)
+    private final Map<Long, User> activeUsers = new ConcurrentHashMap<>();
+    private final RankingIndex rankingIndex = new RankingIndex();
+    private final RankingIndex paceIndex = RankingIndex.byPace();
 
+    private final RoomService roomService;
     private final AlcoholCalculator alcoholCalculator;
+    private final DrinkTypeRegistry drinkTypeRegistry;
     private final RankingCalculator rankingCalculator;
-    private final GeminiService geminiService;
+    private final PaceCalculator paceCalculator;
+    private final AiMessageJobService aiMessageJobService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserEventLog userEventLog;
+    private final UserArchive userArchive;
+    private final DrinkEventDeduplicator drinkEventDeduplicator;
+    // 방에 속하지 않은 사용자 저장소 (방 사용자는 RoomService 가 보관)
+    private final UserRepository userRepository;
+    private final UserSnapshotMapper userSnapshotMapper;
+    private final ClusterService clusterService;
+
+    /**
+     * 기동 시 사용자 저장소 복구
+     *
+     * 이벤트 로그가 켜져 있으면 로그를 재생하고, 꺼져 있어도 저장소(h2)가 읽어 온 사용자로
+     * ID 카운터, 랭킹 인덱스, 진행 중인 사용자 목록을 다시 만든다.
+     */
+    @PostConstruct
+    public void recoverUserStore() throws IOException {
+        long lastUserId = userEventLog.isEnabled() ? replayEventLog() : 0L;
+
+        long maxUserId = lastUserId;
+        for (User user : getLiveUsers()) {
+            maxUserId = Math.max(maxUserId, user.getId());
+            if (!user.isFinished()) {
+                activeUsers.put(user.getId(), user);
+            }
+            updateCharacterLevel(user);
+            reindex(user);
+            // 결과가 저장되기 전에 중단된 AI 작업은 다시 등록
+            if (user.isFinished() && user.getAiMessageStatus() != AiMessageStatus.DONE
+                    && user.getAiMessageStatus() != AiMessageStatus.FALLBACK) {
+                aiMessageJobService.submit(user);
+            }
+        }
+        idCounter.set(maxUserId);
+    }
+
+    /**
+     * 이벤트 로그 재생 (마지막으로 기록된 사용자 ID 반환)
+     */
+    private long replayEventLog() throws IOException {
+        return userEventLog.recover(new UserEventLog.ReplayHandler() {
+            @Override
+            public void restoreRoom(RoomSnapshot room) {
+                roomService.restoreRoom(Room.builder()
+                        .id(room.id())
+                        .name(room.name())
+                        .createdAt(toLocalDateTime(room.createdAtMillis()))
+                        .build());
+            }
+
+            @Override
+            public void restore(UserSnapshot snapshot) {
+                storeUser(userSnapshotMapper.fromSnapshot(snapshot));
+            }
+
+            @Override
+            public void restoreDrinkEventId(DrinkEventId id) {
+                drinkEventDeduplicator.markSeen(id);
+            }
+
+            @Override
+            public void apply(UserEvent event) {
+                replay(event);
+            }
+        });
+    }
+
+    /**
+     * 주기적으로 사용자 저장소 스냅샷 기록 (이전 로그 세그먼트 정리)
+     */
+    @Scheduled(fixedDelayString = "${store.wal.snapshot-interval-ms:60000}",
+            initialDelayString = "${store.wal.snapshot-interval-ms:60000}")
+    public void snapshotUserStore() {
+        if (!userEventLog.isEnabled()) {
+            return;
+        }
+        try {
+            userEventLog.snapshot(new StoreSnapshotSource());
+        } catch (IOException e) {
+            logger.error("Failed to write user store snapshot", e);
+        }
+    }
+
+    /**
+     * 스냅샷 대상 (세그먼트 교체 시점 기준 copy-on-write)
+     * 교체 뒤 바뀌려는 사용자는 바뀌기 전에 복사하고, 교체 뒤 생긴 사용자는 빈 값으로 표시해 복사하지 않는다.
+     */
+    private final class StoreSnapshotSource implements UserEventLog.SnapshotSource {
+
+        private final Map<Long, Optional<UserSnapshot>> copies = new ConcurrentHashMap<>();
+
+        @Override
+        public UserEventLog.StoreSnapshot begin() {
+            return new UserEventLog.StoreSnapshot(idCounter.get(), roomService.toSnapshots(), List.of(), List.of());
+        }
+
+        @Override
+        public void beforeChange(UserEvent event) {
+            switch (event.type()) {
+                case ROOM_CREATED -> {
+                }
+                case ROOM_DROPPED -> roomService.usersOf(event.roomId()).forEach(user -> preserve(user.getId()));
+                default -> preserve(event.userId());
+            }
+        }
+
+        @Override
+        public List<UserSnapshot> users() {
+            for (User user : getLiveUsers()) {
+                preserve(user.getId());
+            }
+            List<UserSnapshot> users = new ArrayList<>(copies.size());
+            for (Optional<UserSnapshot> copy : copies.values()) {
+                copy.ifPresent(users::add);
+            }
+            return users;
+        }
+
+        @Override
+        public List<DrinkEventId> drinkEventIds() {
+            return drinkEventDeduplicator.recent();
+        }
+
+        private void preserve(long userId) {
+            copies.computeIfAbsent(userId,
+                    id -> Optional.ofNullable(lookupUser(id)).map(userSnapshotMapper::toSnapshot));
+        }
+    }
 
     /**
      * 사용자 생성
      */
     public User createUser(String userName) {
-        long newId = idCounter.incrementAndGet();
+        return createUser(userName, null);
+    }
+
+    /**
+     * 방에 사용자 생성 (roomId 가 null 이면 전체 랭킹에 참여)
+     */
+    public User createUser(String userName, Long roomId) {
+        if (roomId != null) {
+            roomService.findRoomById(roomId);
+        }
+        // 클러스터 모드에서는 이 노드가 소유하는 ID (방 사용자 요청은 방의 소유 노드로 전달되어 온다)
+        long newId = clusterService.isEnabled() ? clusterService.nextOwnedId() : idCounter.incrementAndGet();
+        LocalDateTime joinedAt = LocalDateTime.now();
         User user = User.builder()
                 .id(newId)
+                .roomId(roomId)
                 .userName(userName)
-                .joinedAt(LocalDateTime.now())
+                .joinedAt(joinedAt)
                 .build();
-        userStore.put(newId, user);
-        logger.info("Created new user: {} (ID: {})", userName, newId);
+        userEventLog.record(UserEvent.created(newId, userName, roomId != null ? roomId : -1L,
+                toEpochMillis(joinedAt)), () -> storeUser(user));
+        reindex(user);
+        eventPublisher.publishEvent(new RankingChangedEvent(newId, roomId));
+        logger.info("Created new user: {} (ID: {}, room: {})", userName, newId, roomId);
         return user;
     }
 
     /**
      * 잔 추가
      */
-    public User addDrink(Long userId, String drinkType, double glassCount) {
-        User user = findUserById(userId);
+    public User addDrink(Long userId, String drinkTypeName, double glassCount) {
+        User user = findActiveUser(userId);
+        DrinkType drinkType = drinkTypeRegistry.resolve(drinkTypeName);
 
         double sojuEquivalent = alcoholCalculator.calculateSojuEquivalent(drinkType, glassCount);
-        user.setTotalSojuEquivalent(user.getTotalSojuEquivalent() + sojuEquivalent);
-
-        // Update individual drink counts
-        switch (drinkType.toUpperCase()) {
-            case "SOJU":
-                user.setSojuCount(user.getSojuCount() + glassCount);
-                break;
-            case "BEER":
-                user.setBeerCount(user.getBeerCount() + glassCount);
-                break;
-            case "SOMAEK":
-                user.setSomaekCount(user.getSomaekCount() + glassCount);
-                break;
-            case "MAKGEOLLI":
-                user.setMakgeolliCount(user.getMakgeolliCount() + glassCount);
-                break;
-            case "FRUITSOJU":
-                user.setFruitsojuCount(user.getFruitsojuCount() + glassCount);
-                break;
-        }
+        long now = System.currentTimeMillis();
+        userEventLog.record(UserEvent.drink(userId, drinkType.code(), glassCount, now),
+                () -> applyDrink(user, drinkType, glassCount, sojuEquivalent, now));
 
         updateCharacterLevel(user);
+        reindex(user);
+        persist(user);
+        eventPublisher.publishEvent(new RankingChangedEvent(userId, user.getRoomId()));
 
-        logger.info("User {} added {} glasses of {} (soju equiv: {})",
-                user.getUserName(), glassCount, drinkType, sojuEquivalent);
+        logger.debug("User {} added {} glasses of {} (soju equiv: {})",
+                user.getUserName(), glassCount, drinkType.code(), sojuEquivalent);
 
         return user;
     }
 
-    
+    /**
+     * 잔 일괄 추가 (오프라인 기기 재전송 등)
+     * 사용자별로 묶어 한 번에 반영하고 레벨/랭킹은 사용자당 한 번만 갱신한다.
+     * 음주 속도는 시각 순으로만 쌓이므로 사용자별 항목을 기록 시각 순으로 정렬해 반영한다.
+     * eventId 가 이미 처리된 항목은 건너뛴다.
+     */
+    public DrinkBatchResponse addDrinks(List<DrinkEntry> entries) {
+        if (entries == null || entries.isEmpty()) {
+            throw new IllegalArgumentException("추가할 잔이 없습니다.");
+        }
+        if (entries.size() > MAX_BATCH_ENTRIES) {
+            throw new IllegalArgumentException("한 번에 최대 " + MAX_BATCH_ENTRIES + "개까지 추가할 수 있습니다.");
+        }
+
+        // 반영 전에 모든 사용자를 확인해 일부만 반영되는 일이 없도록 한다.
+        Map<Long, List<DrinkEntry>> entriesByUser = new LinkedHashMap<>();
+        for (DrinkEntry entry : entries) {
+            if (entry.getUserId() == null || entry.getDrinkType() == null) {
+                throw new IllegalArgumentException("userId, drinkType 은 필수입니다.");
+            }
+            drinkTypeRegistry.resolve(entry.getDrinkType());
+            entriesByUser.computeIfAbsent(entry.getUserId(), k -> new ArrayList<>()).add(entry);
+        }
+        Map<Long, User> users = new LinkedHashMap<>();
+        for (Long userId : entriesByUser.keySet()) {
+            users.put(userId, findActiveUser(userId));
+        }
+
+        int applied = 0;
+        int duplicates = 0;
+        List<User> updated = new ArrayList<>(users.size());
+        long now = System.currentTimeMillis();
+        for (Map.Entry<Long, List<DrinkEntry>> group : entriesByUser.entrySet()) {
+            User user = users.get(group.getKey());
+            List<DrinkEntry> userEntries = new ArrayList<>(group.getValue());
+            userEntries.sort(Comparator.comparingLong(entry -> drinkTimestamp(user, entry.getClientTimestamp(), now)));
+            List<UserEvent> events = new ArrayList<>(userEntries.size());
+            List<DrinkEventId> claimedEventIds = new ArrayList<>();
+            double[] glassCounts = new double[DrinkType.MAX_TYPES];
+            double[] sojuEquivalents = new double[userEntries.size()];
+            double sojuEquivalent = 0.0;
+            for (DrinkEntry entry : userEntries) {
+                if (entry.getEventId() != null) {
+                    DrinkEventId eventId = new DrinkEventId(user.getId(), entry.getEventId());
+                    if (!drinkEventDeduplicator.markSeen(eventId)) {
+                        duplicates++;
+                        continue;
+                    }
+                    claimedEventIds.add(eventId);
+                }
+                DrinkType drinkType = drinkTypeRegistry.resolve(entry.getDrinkType());
+                sojuEquivalents[events.size()] = alcoholCalculator.calculateSojuEquivalent(drinkType,
+                        entry.getGlassCount());
+                sojuEquivalent += sojuEquivalents[events.size()];
+                glassCounts[drinkType.ordinal()] += entry.getGlassCount();
+                events.add(UserEvent.drink(user.getId(), drinkType.code(), entry.getGlassCount(),
+                        drinkTimestamp(user, entry.getClientTimestamp(), now), entry.getEventId()));
+            }
+            if (events.isEmpty()) {
+                continue;
+            }
+
+            double totalSojuEquivalent = sojuEquivalent;
+            try {
+                userEventLog.record(events, () -> {
+                    user.addTotalSojuEquivalent(totalSojuEquivalent);
+                    for (DrinkType drinkType : drinkTypeRegistry.types()) {
+                        if (glassCounts[drinkType.ordinal()] != 0.0) {
+                            user.addDrinkCount(drinkType, glassCounts[drinkType.ordinal()]);
+                        }
+                    }
+                    for (int i = 0; i < events.size(); i++) {
+                        paceCalculator.record(user, events.get(i).timestampMillis(), sojuEquivalents[i]);
+                    }
+                });
+            } catch (RuntimeException e) {
+                // 반영하지 못한 항목은 재전송 시 다시 반영되어야 한다.
+                claimedEventIds.forEach(drinkEventDeduplicator::unmark);
+                throw e;
+            }
+            updateCharacterLevel(user);
+            reindex(user);
+            persist(user);
+            eventPublisher.publishEvent(new RankingChangedEvent(user.getId(), user.getRoomId()));
+            applied += events.size();
+            updated.add(user);
+
+            logger.debug("User {} added {} drink entries in batch (soju equiv: {})",
+                    user.getUserName(), events.size(), totalSojuEquivalent);
+        }
+
+        return DrinkBatchResponse.builder()
+                .applied(applied)
+                .duplicates(duplicates)
+                .users(updated)
+                .build();
+    }
+
+    /**
+     * 기기가 보낸 기록 시각 (없으면 지금, 참여 전이나 미래 시각은 [참여 시각, 지금] 범위로 맞춘다)
+     */
+    private static long drinkTimestamp(User user, Long clientTimestamp, long now) {
+        if (clientTimestamp == null) {
+            return now;
+        }
+        return Math.min(now, Math.max(user.getJoinedAtMillis(), clientTimestamp));
+    }
+
+    private void applyDrink(User user, DrinkType drinkType, double glassCount, double sojuEquivalent,
+            long timestampMillis) {
+        user.addTotalSojuEquivalent(sojuEquivalent);
+        user.addDrinkCount(drinkType, glassCount);
+        paceCalculator.record(user, timestampMillis, sojuEquivalent);
+    }
 
     /**
      * 개인 타이머 종료
      */
     public User finishUser(Long userId) {
-        User user = findUserById(userId);
-        user.finish();
+        return finishUser(userId, () -> true);
+    }
+
+    /**
+     * 개인 타이머 종료
+     *
+     * @param aiAllowed 종료가 반영된 뒤 한 번 확인, false 면 Gemini 를 호출하지 않고 기본 메시지를 바로 저장 (AI 요청 한도 초과)
+     */
+    public User finishUser(Long userId, BooleanSupplier aiAllowed) {
+        User user = findLiveUser(userId);
+        // 동시에 온 종료 요청 중 하나만 반영한다.
+        synchronized (user) {
+            if (user.isFinished()) {
+                throw new IllegalStateException("이미 종료된 사용자입니다: " + userId);
+            }
+            LocalDateTime finishedAt = LocalDateTime.now();
+            userEventLog.record(UserEvent.finished(userId, toEpochMillis(finishedAt)), () -> {
+                user.finish(finishedAt);
+                activeUsers.remove(userId);
+            });
+        }
         updateCharacterLevel(user);
+        reindex(user);
+        persist(user);
+        eventPublisher.publishEvent(new RankingChangedEvent(userId, user.getRoomId()));
         logger.info("User {} finished drinking session", user.getUserName());
-        // AI 메시지 생성은 비동기로 처리
-        generateAndSaveAiMessage(userId);
+        // AI 메시지 생성은 전용 작업 큐에서 비동기로 처리
+        if (aiAllowed.getAsBoolean()) {
+            aiMessageJobService.submit(user);
+        } else {
+            aiMessageJobService.submitFallback(user);
+        }
         return user;
     }
 
@@ -102,15 +409,48 @@ public class UserService {
      * 시속 잔 수 계산
      */
     public double calculateGlassPerHour(User user) {
-        LocalDateTime startTime = user.getJoinedAt();
-        LocalDateTime endTime = user.getFinishedAt() != null ? user.getFinishedAt() : LocalDateTime.now();
+        return calculateGlassPerHour(user, System.currentTimeMillis());
+    }
 
-        Duration duration = Duration.between(startTime, endTime);
-        double hours = duration.toSeconds() / 3600.0;
+    private double calculateGlassPerHour(User user, long nowMillis) {
+        long endMillis = user.isFinished() ? user.getFinishedAtMillis() : nowMillis;
+        double hours = (endMillis - user.getJoinedAtMillis()) / 1000 / 3600.0;
 
         return alcoholCalculator.calculateGlassPerHour(user.getTotalSojuEquivalent(), hours);
     }
 
+    /**
+     * 진행 중인 사용자 (종료된 방의 사용자는 이때 정리)
+     */
+    List<User> getActiveUsers() {
+        List<User> users = new ArrayList<>(activeUsers.size());
+        for (User user : activeUsers.values()) {
+            if (lookupUser(user.getId()) == user) {
+                users.add(user);
+            } else {
+                activeUsers.remove(user.getId(), user);
+            }
+        }
+        return users;
+    }
+
+    /**
+     * 시간 경과에 따른 캐릭터 레벨 재계산 (바뀐 경우에만 반영하고 이벤트 발행)
+     */
+    boolean refreshCharacterLevel(User user, long nowMillis) {
+        Integer previousLevel = user.getCharacterLevel();
+        Integer characterLevel = rankingCalculator.determineCharacterLevel(calculateGlassPerHour(user, nowMillis));
+        if (characterLevel.equals(previousLevel) || user.isFinished()) {
+            return false;
+        }
+        user.setCharacterLevel(characterLevel);
+        persist(user);
+        eventPublisher.publishEvent(
+                new CharacterLevelChangedEvent(user.getId(), user.getRoomId(), previousLevel, characterLevel));
+        eventPublisher.publishEvent(new RankingChangedEvent(user.getId(), user.getRoomId()));
+        return true;
+    }
+
     /**
      * 캐릭터 레벨 업데이트
      */
@@ -122,47 +462,349 @@ public class UserService {
     }
 
     /**
-     * 사용자 조회
+     * 사용자 조회 (메모리에 없으면 아카이브에서 조회)
      */
     public User findUserById(Long userId) {
-        User user = userStore.get(userId);
+        User user = lookupUser(userId);
+        if (user == null && userArchive.isEnabled()) {
+            UserSnapshot archived = userArchive.find(userId);
+            if (archived != null) {
+                return userSnapshotMapper.fromSnapshot(archived);
+            }
+        }
         if (user == null) {
             throw new IllegalArgumentException("사용자를 찾을 수 없습니다: " + userId);
         }
         return user;
     }
 
+    /**
+     * 메모리에 있는 사용자 조회 (상태 변경용, 아카이브된 사용자는 변경할 수 없다)
+     */
+    private User findLiveUser(Long userId) {
+        User user = lookupUser(userId);
+        if (user == null) {
+            throw new IllegalArgumentException("사용자를 찾을 수 없습니다: " + userId);
+        }
+        return user;
+    }
+
+    /**
+     * 아직 종료하지 않은 사용자 조회 (종료된 사용자의 기록은 바꿀 수 없다)
+     */
+    private User findActiveUser(Long userId) {
+        User user = findLiveUser(userId);
+        if (user.isFinished()) {
+            throw new IllegalStateException("이미 종료된 사용자입니다: " + userId);
+        }
+        return user;
+    }
+
+    /**
+     * 메모리에 있는 사용자 수 (방 사용자 포함)
+     */
+    public int getLiveUserCount() {
+        return userRepository.count() + roomService.totalUserCount();
+    }
+
+    /**
+     * 메모리에 있는 모든 사용자 (보관 정책 점검용)
+     */
+    List<User> getLiveUsers() {
+        List<User> users = new ArrayList<>(userRepository.findAll());
+        users.addAll(roomService.allUsers());
+        return users;
+    }
+
+    /**
+     * 사용자를 메모리와 랭킹에서 내보냄 (아카이브가 켜져 있으면 먼저 디스크에 보관)
+     */
+    void evictUser(User user) {
+        if (userArchive.isEnabled()) {
+            userArchive.write(userSnapshotMapper.toSnapshot(user));
+        }
+        userEventLog.record(UserEvent.evicted(user.getId(), System.currentTimeMillis()), () -> removeUser(user));
+    }
+
+    private void removeUser(User user) {
+        activeUsers.remove(user.getId());
+        if (user.getRoomId() == null) {
+            userRepository.delete(user.getId());
+            rankingIndex.remove(user.getId());
+            paceIndex.remove(user.getId());
+        } else {
+            roomService.removeUser(user);
+        }
+    }
+
     /**
      * 모든 사용자 랭킹 조회
      */
     public List<User> getRankings() {
-        return userStore.values().stream()
-                .sorted(Comparator.comparing(User::getTotalSojuEquivalent).reversed())
-                .collect(Collectors.toList());
+        return rankingIndex.range(0, Integer.MAX_VALUE);
     }
 
     /**
-     * AI 메시지 비동기 생성 및 저장
+     * 랭킹 구간 조회 (offset 부터 limit 명)
      */
-    @Async
-    public void generateAndSaveAiMessage(Long userId) {
+    public List<User> getRankings(int offset, int limit) {
+        return range(null, RankingSort.TOTAL, offset, limit);
+    }
+
+    /**
+     * 방 랭킹 구간 조회 (offset 부터 limit 명)
+     */
+    public List<User> getRoomRankings(Long roomId, int offset, int limit) {
+        roomService.findRoomById(roomId);
+        return range(roomId, RankingSort.TOTAL, offset, limit);
+    }
+
+    /**
+     * 특정 사용자 주변 랭킹 조회 (해당 사용자가 속한 랭킹에서 가운데 오도록 limit 명)
+     */
+    public List<User> getRankingsAround(Long userId, int limit) {
         User user = findUserById(userId);
-        if (user.getFinishedAt() == null)
-            return;
+        return range(user.getRoomId(), RankingSort.TOTAL, aroundOffset(user, limit, RankingSort.TOTAL), limit);
+    }
 
+    /**
+     * 랭킹 응답 구간 조회 (roomId 가 null 이면 방에 속하지 않은 사용자 랭킹)
+     */
+    public List<RankingResponse> getRankingResponses(Long roomId, RankingSort sort, int offset, int limit) {
+        if (roomId != null) {
+            roomService.findRoomById(roomId);
+        }
+        return toRankingResponses(range(roomId, sort, offset, limit), offset + 1);
+    }
+
+    /**
+     * 특정 사용자 주변 랭킹 응답 (roomId 를 지정하면 해당 방의 사용자인지 확인)
+     */
+    public List<RankingResponse> getRankingResponsesAround(Long roomId, Long userId, int limit, RankingSort sort) {
+        User user = findUserById(userId);
+        if (roomId != null && !roomId.equals(user.getRoomId())) {
+            throw new IllegalArgumentException("해당 방의 사용자가 아닙니다: " + userId);
+        }
+        int offset = aroundOffset(user, limit, sort);
+        return toRankingResponses(range(user.getRoomId(), sort, offset, limit), offset + 1);
+    }
+
+    /**
+     * 사용자 순위 조회 (사용자가 속한 랭킹 기준 1등부터 시작, 없으면 0)
+     */
+    public int getRank(Long userId) {
+        User user = lookupUser(userId);
+        if (user == null) {
+            return 0;
+        }
         try {
-            long durationSeconds = Duration.between(user.getJoinedAt(), user.getFinishedAt()).getSeconds();
-            String message = geminiService.generateDrinkingResultMessage(
-                    user.getUserName(),
-                    (int) durationSeconds,
-                    user.getTotalSojuEquivalent(),
-                    user.getCharacterLevel() != null ? user.getCharacterLevel() : 0);
-
-            user.setAiMessage(message);
-            logger.info("Async AI message generated and saved for user: {}", user.getUserName());
-        } catch (Exception e) {
-            logger.error("Error generating AI message asynchronously", e);
-            user.setAiMessage("AI 분석에 실패했습니다.");
+            return rankingIndexOf(user).rankOf(userId) + 1;
+        } catch (IllegalArgumentException e) {
+            // 방이 종료된 경우
+            return 0;
         }
     }
+
+    /**
+     * 사용자가 가운데 오는 구간의 시작 위치
+     */
+    private int aroundOffset(User user, int limit, RankingSort sort) {
+        int rank;
+        if (sort == RankingSort.RECENT) {
+            rank = recentRanking(user.getRoomId()).indexOf(user);
+        } else {
+            rank = (sort == RankingSort.PACE ? paceIndexOf(user) : rankingIndexOf(user)).rankOf(user.getId());
+        }
+        return Math.max(0, rank - limit / 2);
+    }
+
+    /**
+     * 랭킹 구간 조회 (roomId 가 null 이면 방에 속하지 않은 사용자 랭킹)
+     */
+    private List<User> range(Long roomId, RankingSort sort, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("offset, limit 은 0 이상이어야 합니다.");
+        }
+        return switch (sort) {
+            case TOTAL -> (roomId == null ? rankingIndex : roomService.rankingIndex(roomId)).range(offset, limit);
+            case PACE -> (roomId == null ? paceIndex : roomService.paceIndex(roomId)).range(offset, limit);
+            case RECENT -> {
+                List<User> ranking = recentRanking(roomId);
+                int from = Math.min(offset, ranking.size());
+                int to = (int) Math.min((long) from + limit, ranking.size());
+                yield ranking.subList(from, to);
+            }
+        };
+    }
+
+    /**
+     * 최근 구간 시속 랭킹
+     * 시간이 지나면 구간에서 빠지는 기록이 있어 인덱스로 유지할 수 없으므로 조회 시점에 정렬한다. (O(n log n))
+     */
+    private List<User> recentRanking(Long roomId) {
+        List<User> users = (roomId == null ? rankingIndex : roomService.rankingIndex(roomId))
+                .range(0, Integer.MAX_VALUE);
+        long now = System.currentTimeMillis();
+        Map<Long, Double> rates = new HashMap<>(users.size() * 2);
+        for (User user : users) {
+            rates.put(user.getId(), paceCalculator.recentGlassPerHour(user, now));
+        }
+        users.sort(Comparator.<User>comparingDouble(user -> rates.get(user.getId())).reversed()
+                .thenComparing(User::getId));
+        return users;
+    }
+
+    private User lookupUser(Long userId) {
+        User user = userRepository.findById(userId);
+        return user != null ? user : roomService.findUser(userId);
+    }
+
+    private void storeUser(User user) {
+        if (user.getRoomId() == null) {
+            userRepository.save(user);
+        } else {
+            roomService.addUser(user);
+        }
+        if (!user.isFinished()) {
+            activeUsers.put(user.getId(), user);
+        }
+    }
+
+    private RankingIndex rankingIndexOf(User user) {
+        return user.getRoomId() == null ? rankingIndex : roomService.rankingIndex(user.getRoomId());
+    }
+
+    private RankingIndex paceIndexOf(User user) {
+        return user.getRoomId() == null ? paceIndex : roomService.paceIndex(user.getRoomId());
+    }
+
+    /**
+     * 변경된 사용자를 저장소에 반영 (방 사용자는 메모리 파티션에만 있다)
+     */
+    private void persist(User user) {
+        if (user.getRoomId() == null) {
+            userRepository.save(user);
+        }
+    }
+
+    /**
+     * AI 메시지 저장 후 저장소 반영
+     */
+    @EventListener
+    public void onAiMessageReady(AiMessageReadyEvent event) {
+        User user = lookupUser(event.userId());
+        if (user != null) {
+            persist(user);
+        }
+    }
+
+    /**
+     * 누적/속도 랭킹 인덱스 갱신
+     */
+    private void reindex(User user) {
+        rankingIndexOf(user).update(user);
+        paceIndexOf(user).update(user);
+    }
+
+    /**
+     * 랭킹 응답 DTO 변환
+     */
+    public RankingResponse toRankingResponse(User user, int rank) {
+        return toRankingResponse(user, rank, System.currentTimeMillis());
+    }
+
+    private List<RankingResponse> toRankingResponses(List<User> users, int firstRank) {
+        long now = System.currentTimeMillis();
+        List<RankingResponse> responses = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            responses.add(toRankingResponse(users.get(i), firstRank + i, now));
+        }
+        return responses;
+    }
+
+    private RankingResponse toRankingResponse(User user, int rank, long now) {
+        return RankingResponse.builder()
+                .userId(user.getId())
+                .userName(user.getUserName())
+                .rank(rank)
+                .glassPerHour(calculateGlassPerHour(user, now))
+                .recentGlassPerHour(paceCalculator.recentGlassPerHour(user, now))
+                .pace(paceCalculator.decayedGlassPerHour(user, now))
+                .totalSojuEquivalent(user.getTotalSojuEquivalent())
+                .characterLevel(user.getCharacterLevel())
+                .isFinished(user.isFinished())
+                .build();
+    }
+
+    /**
+     * 이벤트 로그 재생 (로그 기록, 랭킹 이벤트 발행 없이 상태만 반영)
+     */
+    private void replay(UserEvent event) {
+        switch (event.type()) {
+            case ROOM_CREATED -> {
+                roomService.restoreRoom(Room.builder()
+                        .id(event.roomId())
+                        .name(event.text())
+                        .createdAt(toLocalDateTime(event.timestampMillis()))
+                        .build());
+                return;
+            }
+            case ROOM_DROPPED -> {
+                roomService.removeRoom(event.roomId());
+                return;
+            }
+            case CREATED -> {
+                Long roomId = event.roomId() >= 0 ? event.roomId() : null;
+                try {
+                    storeUser(User.builder()
+                            .id(event.userId())
+                            .roomId(roomId)
+                            .userName(event.text())
+                            .joinedAt(toLocalDateTime(event.timestampMillis()))
+                            .build());
+                } catch (IllegalArgumentException e) {
+                    // 이미 종료된 방의 사용자
+                }
+                return;
+            }
+            case DRINK_WITH_EVENT_ID -> drinkEventDeduplicator.markSeen(new DrinkEventId(event.userId(),
+                    event.eventId()));
+            default -> {
+            }
+        }
+        User user = lookupUser(event.userId());
+        if (user == null) {
+            return;
+        }
+        switch (event.type()) {
+            case EVICTED -> removeUser(user);
+            case DRINK, DRINK_WITH_EVENT_ID -> {
+                // 설정에서 빠진 술 종류의 기록은 무시
+                DrinkType drinkType = drinkTypeRegistry.find(event.text());
+                if (drinkType != null) {
+                    applyDrink(user, drinkType, event.glassCount(),
+                            alcoholCalculator.calculateSojuEquivalent(drinkType, event.glassCount()),
+                            event.timestampMillis());
+                }
+            }
+            case FINISHED -> {
+                user.finish(toLocalDateTime(event.timestampMillis()));
+                activeUsers.remove(user.getId());
+            }
+            case AI_MESSAGE -> {
+                user.setAiMessage(event.text());
+                user.setAiMessageStatus(event.status());
+            }
+            default -> {
+            }
+        }
+    }
+
+    static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
 }
@@ -1,38 +1,21 @@
 package com.drinkspeed.util;
 
+import com.drinkspeed.domain.DrinkType;
 import org.springframework.stereotype.Component;
 
 @Component
 public class AlcoholCalculator {
 
-    /**
-     * 술 종류별 소주 환산 비율
-     * 소주 1잔(50ml, 도수 17%) 기준
-     */
-    private static final double SOJU_RATE = 1.0;
-    private static final double BEER_RATE = 0.7; // 맥주 1잔
-    private static final double SOMAEK_RATE = 1.3; // 소맥 1잔
-    private static final double MAKGEOLLI_RATE = 0.8; // 막걸리 1잔
-    private static final double FRUIT_SOJU_RATE = 0.5; // 과일소주 1잔
-
     /**
      * 술 종류와 잔 수를 기반으로 소주 환산량 계산
+     * 술 종류별 환산 비율은 DrinkTypeRegistry (drinks.types 설정) 에서 읽는다.
      *
-     * @param drinkType  술 종류 (String)
+     * @param drinkType  술 종류
      * @param glassCount 잔 수
      * @return 소주 환산량
      */
-    public double calculateSojuEquivalent(String drinkType, double glassCount) {
-        double rate = switch (drinkType.toUpperCase()) {
-            case "SOJU" -> SOJU_RATE;
-            case "BEER" -> BEER_RATE;
-            case "SOMAEK" -> SOMAEK_RATE;
-            case "MAKGEOLLI" -> MAKGEOLLI_RATE;
-            case "FRUITSOJU", "FRUIT_SOJU" -> FRUIT_SOJU_RATE;
-            default -> 0.0; // Or throw an exception for unknown types
-        };
-
-        return rate * glassCount;
+    public double calculateSojuEquivalent(DrinkType drinkType, double glassCount) {
+        return drinkType.sojuRate() * glassCount;
     }
 
     /**
@@ -0,0 +1,85 @@
+package com.drinkspeed.util;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * 연속 실패 횟수 기반 서킷 브레이커 (CLOSED → OPEN → HALF_OPEN)
+ *
+ * - CLOSED: 모든 호출 허용, 연속 실패가 failureThreshold 에 도달하면 OPEN
+ * - OPEN: openDurationMs 동안 호출 즉시 거절
+ * - HALF_OPEN: 시험 호출 1건만 허용, 성공하면 CLOSED / 실패하면 다시 OPEN
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openDurationMs;
+    private final LongSupplier clock;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean trialInFlight = new AtomicBoolean();
+    private volatile State state = State.CLOSED;
+    private volatile long openedAtMs;
+
+    public CircuitBreaker(int failureThreshold, long openDurationMs) {
+        this(failureThreshold, openDurationMs, System::currentTimeMillis);
+    }
+
+    public CircuitBreaker(int failureThreshold, long openDurationMs, LongSupplier clock) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationMs = openDurationMs;
+        this.clock = clock;
+    }
+
+    /**
+     * 호출 허용 여부 (허용된 호출은 반드시 onSuccess/onFailure 중 하나를 보고해야 한다)
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (clock.getAsLong() - openedAtMs < openDurationMs) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialInFlight.set(false);
+        }
+        if (state == State.HALF_OPEN) {
+            return trialInFlight.compareAndSet(false, true);
+        }
+        return true;
+    }
+
+    /**
+     * 지금 호출이 허용될지 미리 확인 (자리를 잡지 않으며, 실제 호출 전에는 tryAcquire 를 거쳐야 한다)
+     */
+    public synchronized boolean isCallPermitted() {
+        if (state == State.OPEN) {
+            return clock.getAsLong() - openedAtMs >= openDurationMs;
+        }
+        return state != State.HALF_OPEN || !trialInFlight.get();
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures.set(0);
+        state = State.CLOSED;
+        trialInFlight.set(false);
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            state = State.OPEN;
+            openedAtMs = clock.getAsLong();
+            trialInFlight.set(false);
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+}
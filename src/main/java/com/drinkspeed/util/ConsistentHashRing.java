@@ -0,0 +1,45 @@
+package com.drinkspeed.util;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 노드 ID 에 대한 일관 해시 링 (가상 노드 포함)
+ *
+ * 모든 노드가 같은 노드 수와 가상 노드 수로 만들면 같은 키에 대해 같은 소유 노드를 돌려준다.
+ * 노드가 늘거나 줄면 키의 약 1/N 만 소유 노드가 바뀐다.
+ */
+public class ConsistentHashRing {
+
+    private final TreeMap<Long, Integer> ring = new TreeMap<>();
+
+    public ConsistentHashRing(int nodeCount, int virtualNodes) {
+        if (nodeCount <= 0 || virtualNodes <= 0) {
+            throw new IllegalArgumentException("노드 수와 가상 노드 수는 1 이상이어야 합니다.");
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            for (int replica = 0; replica < virtualNodes; replica++) {
+                // 충돌은 드물고, 충돌해도 먼저 넣은 노드가 가지므로 모든 노드에서 결과가 같다.
+                ring.putIfAbsent(mix(((long) node << 32) | replica), node);
+            }
+        }
+    }
+
+    /**
+     * 키를 소유하는 노드 ID
+     */
+    public int ownerOf(long key) {
+        Map.Entry<Long, Integer> entry = ring.ceilingEntry(mix(key));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    /**
+     * 64비트 혼합 함수 (SplitMix64) - 연속된 ID 도 링 위에 고르게 흩어진다.
+     */
+    static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,114 @@
+package com.drinkspeed.util;
+
+import com.drinkspeed.domain.DrinkType;
+import jakarta.annotation.PostConstruct;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 술 종류 레지스트리
+ * 기본 술 종류(DEFAULT_DEFINITIONS)에 순번을 매기고, drinks.types 설정이 있으면 그 목록으로 바꾼다.
+ * 요청의 술 종류 문자열은 한 번만 DrinkType 으로 변환한다.
+ * 조회는 대소문자를 무시하는 불변 맵이라 변환 시 문자열을 새로 만들지 않는다.
+ */
+@Component
+@ConfigurationProperties(prefix = "drinks")
+public class DrinkTypeRegistry {
+
+    /**
+     * 설정의 술 종류 정의
+     */
+    @Data
+    public static class Definition {
+        private String code;
+        private double sojuRate;
+        private List<String> aliases = new ArrayList<>();
+
+        static Definition of(String code, double sojuRate, String... aliases) {
+            Definition definition = new Definition();
+            definition.setCode(code);
+            definition.setSojuRate(sojuRate);
+            definition.setAliases(List.of(aliases));
+            return definition;
+        }
+    }
+
+    // 설정이 없을 때 사용하는 기본값 (소주 1잔 50ml, 도수 17% 기준, 기본 목록은 여기에만 둔다)
+    private static final List<Definition> DEFAULT_DEFINITIONS = List.of(
+            Definition.of("SOJU", 1.0),
+            Definition.of("BEER", 0.7),
+            Definition.of("SOMAEK", 1.3),
+            Definition.of("MAKGEOLLI", 0.8),
+            Definition.of("FRUITSOJU", 0.5, "FRUIT_SOJU"));
+
+    private record Registered(List<DrinkType> types, Map<String, DrinkType> byName) {
+    }
+
+    private volatile Registered current = register(DEFAULT_DEFINITIONS);
+
+    private List<Definition> types = new ArrayList<>();
+
+    public List<Definition> getTypes() {
+        return types;
+    }
+
+    public void setTypes(List<Definition> types) {
+        this.types = types;
+    }
+
+    @PostConstruct
+    void init() {
+        if (!types.isEmpty()) {
+            current = register(types);
+        }
+    }
+
+    /**
+     * 술 종류 변환 (알 수 없는 종류면 예외)
+     */
+    public DrinkType resolve(String name) {
+        DrinkType drinkType = find(name);
+        if (drinkType == null) {
+            throw new IllegalArgumentException("알 수 없는 술 종류입니다: " + name);
+        }
+        return drinkType;
+    }
+
+    /**
+     * 술 종류 조회 (없으면 null)
+     */
+    public DrinkType find(String name) {
+        return name != null ? current.byName().get(name) : null;
+    }
+
+    public List<DrinkType> types() {
+        return current.types();
+    }
+
+    private static Registered register(List<Definition> definitions) {
+        if (definitions.size() > DrinkType.MAX_TYPES) {
+            throw new IllegalStateException("술 종류는 최대 " + DrinkType.MAX_TYPES + "개까지 등록할 수 있습니다.");
+        }
+        List<DrinkType> types = new ArrayList<>(definitions.size());
+        Map<String, DrinkType> byName = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Definition definition : definitions) {
+            String code = definition.getCode().toUpperCase(Locale.ROOT);
+            DrinkType drinkType = new DrinkType(types.size(), code, definition.getSojuRate(),
+                    code.toLowerCase(Locale.ROOT) + "Count");
+            types.add(drinkType);
+            byName.put(code, drinkType);
+            for (String alias : definition.getAliases()) {
+                byName.put(alias, drinkType);
+            }
+        }
+        return new Registered(Collections.unmodifiableList(types), Collections.unmodifiableMap(byName));
+    }
+}
@@ -0,0 +1,81 @@
+package com.drinkspeed.util;
+
+import java.util.Arrays;
+
+/**
+ * 최근 호출 지연 시간 링 버퍼 기반 백분위 추적기
+ * 타임아웃 = clamp(백분위 지연 x multiplier, minTimeoutMs, maxTimeoutMs)
+ * 표본이 minSamples 미만이면 maxTimeoutMs 를 사용한다.
+ */
+public class LatencyTracker {
+
+    private static final int RECOMPUTE_EVERY = 16;
+
+    private final long[] samples;
+    private final double percentile;
+    private final double multiplier;
+    private final long minTimeoutMs;
+    private final long maxTimeoutMs;
+    private final int minSamples;
+
+    private int next;
+    private int count;
+    private int sinceRecompute;
+    private volatile long timeoutMs;
+
+    public LatencyTracker(int windowSize, double percentile, double multiplier, long minTimeoutMs,
+            long maxTimeoutMs, int minSamples) {
+        this.samples = new long[windowSize];
+        this.percentile = percentile;
+        this.multiplier = multiplier;
+        this.minTimeoutMs = minTimeoutMs;
+        this.maxTimeoutMs = maxTimeoutMs;
+        this.minSamples = minSamples;
+        this.timeoutMs = maxTimeoutMs;
+    }
+
+    public synchronized void record(long latencyMs) {
+        samples[next] = latencyMs;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+        if (++sinceRecompute >= RECOMPUTE_EVERY || count == minSamples) {
+            sinceRecompute = 0;
+            recompute();
+        }
+    }
+
+    /**
+     * 현재 적용할 호출 타임아웃 (ms)
+     */
+    public long timeoutMs() {
+        return timeoutMs;
+    }
+
+    /**
+     * 표본과 관계없는 최대 타임아웃 (ms)
+     */
+    public long maxTimeoutMs() {
+        return maxTimeoutMs;
+    }
+
+    public synchronized long percentileMs() {
+        if (count == 0) {
+            return 0L;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.min(count - 1, Math.ceil(percentile * count) - 1);
+        return sorted[Math.max(0, index)];
+    }
+
+    private void recompute() {
+        if (count < minSamples) {
+            timeoutMs = maxTimeoutMs;
+            return;
+        }
+        long adaptive = (long) (percentileMs() * multiplier);
+        timeoutMs = Math.max(minTimeoutMs, Math.min(maxTimeoutMs, adaptive));
+    }
+}
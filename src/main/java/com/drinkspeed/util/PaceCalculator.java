@@ -0,0 +1,53 @@
+package com.drinkspeed.util;
+
+import com.drinkspeed.domain.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 실시간 음주 속도 계산 (최근 구간 시속, 지수 감쇠 속도)
+ * 누적 시속(가입 이후 전체 평균)과 달리 지금 빠르게 마시는 사용자를 보여준다.
+ */
+@Component
+public class PaceCalculator {
+
+    private static final double MILLIS_PER_HOUR = 3_600_000.0;
+
+    // 가입 직후 한 잔으로 시속이 튀지 않도록 두는 최소 구간
+    private static final long MIN_SPAN_MILLIS = 60_000L;
+
+    private final long windowMillis;
+    private final double tauMillis;
+
+    public PaceCalculator(@Value("${pace.window-minutes:15}") long windowMinutes,
+            @Value("${pace.half-life-minutes:10}") double halfLifeMinutes) {
+        this.windowMillis = windowMinutes * 60_000L;
+        this.tauMillis = halfLifeMinutes * 60_000.0 / Math.log(2);
+    }
+
+    /**
+     * 잔 기록 반영
+     */
+    public void record(User user, long millis, double sojuEquivalent) {
+        user.getPace().record(millis, sojuEquivalent, windowMillis, tauMillis);
+    }
+
+    /**
+     * 최근 구간 시속 (가입한 지 구간보다 짧으면 가입 이후 기준)
+     */
+    public double recentGlassPerHour(User user, long nowMillis) {
+        double sum = user.getPace().windowSum(nowMillis, windowMillis);
+        if (sum == 0.0) {
+            return 0.0;
+        }
+        long span = Math.min(windowMillis, Math.max(MIN_SPAN_MILLIS, nowMillis - user.getJoinedAtMillis()));
+        return sum / (span / MILLIS_PER_HOUR);
+    }
+
+    /**
+     * 지수 감쇠 속도 (잔/시간, 일정한 속도로 마시면 그 속도에 수렴)
+     */
+    public double decayedGlassPerHour(User user, long nowMillis) {
+        return user.getPace().decayed(nowMillis, tauMillis) / (tauMillis / MILLIS_PER_HOUR);
+    }
+}
@@ -0,0 +1,146 @@
+package com.drinkspeed.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 상대 오차를 보장하는 고정 크기 분위수 스케치 (DDSketch 방식 로그 버킷)
+ *
+ * 값 v 는 ceil(log_γ v) 번 버킷에 세며, γ = (1 + α) / (1 - α) 이므로 분위수의 상대 오차는 α 이하다.
+ * 버킷 수가 고정이라 메모리와 조회 시간은 값의 개수와 무관하고, 같은 설정의 스케치끼리는 버킷을 더해 병합한다.
+ * 버킷 개수만 세므로 이전에 넣은 값을 정확히 빼낼 수 있다. (사용자 값이 바뀌면 이전 값을 빼고 새 값을 넣는다)
+ * minValue 이하의 값(0 포함)은 0 번 버킷, maxValue 이상은 마지막 버킷에 센다.
+ */
+public class QuantileSketch {
+
+    private final double relativeAccuracy;
+    private final double minValue;
+    private final double maxValue;
+    private final double logGamma;
+    private final int offset;
+
+    // 0 번: minValue 이하, 1.. : 로그 버킷
+    private final AtomicLongArray counts;
+
+    public QuantileSketch(double relativeAccuracy, double minValue, double maxValue) {
+        if (relativeAccuracy <= 0.0 || relativeAccuracy >= 1.0 || minValue <= 0.0 || maxValue <= minValue) {
+            throw new IllegalArgumentException("스케치 설정이 올바르지 않습니다.");
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.minValue = minValue;
+        this.maxValue = maxValue;
+        this.logGamma = Math.log((1 + relativeAccuracy) / (1 - relativeAccuracy));
+        this.offset = logIndex(minValue) - 1;
+        this.counts = new AtomicLongArray(logIndex(maxValue) - offset + 1);
+    }
+
+    /**
+     * 같은 설정의 빈 스케치
+     */
+    public QuantileSketch emptyCopy() {
+        return new QuantileSketch(relativeAccuracy, minValue, maxValue);
+    }
+
+    public void add(double value) {
+        counts.incrementAndGet(bucketOf(value));
+    }
+
+    public void remove(double value) {
+        counts.decrementAndGet(bucketOf(value));
+    }
+
+    /**
+     * 다른 스케치의 값을 모두 더한다. (같은 설정이어야 한다)
+     */
+    public void merge(QuantileSketch other) {
+        if (other.counts.length() != counts.length() || other.relativeAccuracy != relativeAccuracy
+                || other.minValue != minValue) {
+            throw new IllegalArgumentException("설정이 다른 스케치는 병합할 수 없습니다.");
+        }
+        for (int i = 0; i < counts.length(); i++) {
+            long count = other.counts.get(i);
+            if (count != 0L) {
+                counts.addAndGet(i, count);
+            }
+        }
+    }
+
+    public long count() {
+        long total = 0L;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * 값이 value 보다 작은 비율 (0 ~ 1, 같은 버킷의 값은 절반으로 센다, 비어 있으면 0)
+     */
+    public double rankOf(double value) {
+        int bucket = bucketOf(value);
+        long below = 0L;
+        long total = 0L;
+        long same = 0L;
+        for (int i = 0; i < counts.length(); i++) {
+            long count = counts.get(i);
+            total += count;
+            if (i < bucket) {
+                below += count;
+            } else if (i == bucket) {
+                same = count;
+            }
+        }
+        return total > 0L ? (below + same / 2.0) / total : 0.0;
+    }
+
+    /**
+     * q 분위수 (0 ~ 1, 비어 있으면 0)
+     */
+    public double quantile(double q) {
+        if (q < 0.0 || q > 1.0) {
+            throw new IllegalArgumentException("분위수는 0 이상 1 이하여야 합니다: " + q);
+        }
+        long[] snapshot = new long[counts.length()];
+        long total = 0L;
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0L) {
+            return 0.0;
+        }
+        long target = (long) Math.floor(q * (total - 1));
+        long seen = 0L;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen > target) {
+                return valueOf(i);
+            }
+        }
+        return valueOf(snapshot.length - 1);
+    }
+
+    private int bucketOf(double value) {
+        if (!(value > minValue)) {
+            return 0;
+        }
+        if (value >= maxValue) {
+            return counts.length() - 1;
+        }
+        return logIndex(value) - offset;
+    }
+
+    /**
+     * 버킷의 대표값 (버킷 구간 (γ^(i-1), γ^i] 안에서 상대 오차가 가장 작은 값)
+     */
+    private double valueOf(int bucket) {
+        if (bucket == 0) {
+            return 0.0;
+        }
+        double upper = Math.exp((bucket + offset) * logGamma);
+        return upper * 2 / (1 + Math.exp(logGamma));
+    }
+
+    private int logIndex(double value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+}
@@ -0,0 +1,63 @@
+package com.drinkspeed.util;
+
+import java.util.function.LongSupplier;
+
+/**
+ * 노드 ID 를 포함한 시간순 ID 생성기 (Snowflake 방식)
+ *
+ * 브라우저가 숫자로 그대로 다룰 수 있도록 53비트(JavaScript 안전 정수) 안에 맞춘다.
+ * [40비트: 기준 시각 이후 ms][5비트: 노드 ID][8비트: 같은 ms 안의 순번]
+ * - 약 34년, 노드 32개, 노드당 ms 당 256개
+ * - 순번이 넘치거나 시계가 뒤로 가면 마지막 시각을 1ms 씩 앞당겨 쓴다. (대기 없이 단조 증가)
+ */
+public class SnowflakeIdGenerator {
+
+    // 2024-01-01T00:00:00Z
+    static final long EPOCH_MILLIS = 1_704_067_200_000L;
+
+    static final int NODE_BITS = 5;
+    static final int SEQUENCE_BITS = 8;
+    public static final int MAX_NODES = 1 << NODE_BITS;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeId;
+    private final LongSupplier clock;
+
+    private long lastMillis = -1L;
+    private long sequence;
+
+    public SnowflakeIdGenerator(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    SnowflakeIdGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId >= MAX_NODES) {
+            throw new IllegalArgumentException("노드 ID 는 0 이상 " + MAX_NODES + " 미만이어야 합니다: " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    public synchronized long nextId() {
+        long now = clock.getAsLong();
+        if (now > lastMillis) {
+            lastMillis = now;
+            sequence = 0L;
+        } else {
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+            if (sequence == 0L) {
+                lastMillis++;
+            }
+        }
+        return ((lastMillis - EPOCH_MILLIS) << (NODE_BITS + SEQUENCE_BITS))
+                | (nodeId << SEQUENCE_BITS)
+                | sequence;
+    }
+
+    /**
+     * ID 를 발급한 노드
+     */
+    public static int nodeIdOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & (MAX_NODES - 1));
+    }
+}
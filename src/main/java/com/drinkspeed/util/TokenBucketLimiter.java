@@ -0,0 +1,109 @@
+package com.drinkspeed.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * 키(클라이언트 IP, 사용자 ID 등)별 토큰 버킷 요청 제한기
+ *
+ * 키를 해시로 여러 스트라이프에 나누고 스트라이프마다 락과 버킷 맵을 따로 두어 서로 다른 키끼리 경합하지 않는다.
+ * 버킷은 capacity 개까지 쌓이고 초당 refillPerSecond 개씩 다시 찬다. 처음 보는 키는 가득 찬 버킷으로 시작한다.
+ * 스트라이프마다 최근에 쓴 maxKeysPerStripe 개의 버킷만 기억한다. (잊힌 키는 다시 가득 찬 버킷으로 시작)
+ */
+public class TokenBucketLimiter {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    /**
+     * 버킷 상태 (스트라이프 락 안에서만 접근)
+     */
+    private static final class Bucket {
+        private double tokens;
+        private long refilledAtNanos;
+
+        private Bucket(double tokens, long refilledAtNanos) {
+            this.tokens = tokens;
+            this.refilledAtNanos = refilledAtNanos;
+        }
+    }
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final LongSupplier nanoClock;
+    private final Map<Object, Bucket>[] stripes;
+    private final int mask;
+
+    public TokenBucketLimiter(double capacity, double refillPerSecond, int stripes, int maxKeysPerStripe) {
+        this(capacity, refillPerSecond, stripes, maxKeysPerStripe, System::nanoTime);
+    }
+
+    @SuppressWarnings("unchecked")
+    TokenBucketLimiter(double capacity, double refillPerSecond, int stripes, int maxKeysPerStripe,
+            LongSupplier nanoClock) {
+        if (capacity < 1.0 || refillPerSecond <= 0.0 || stripes <= 0 || maxKeysPerStripe <= 0) {
+            throw new IllegalArgumentException("요청 제한 설정이 올바르지 않습니다.");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / NANOS_PER_SECOND;
+        this.nanoClock = nanoClock;
+        // 2 의 거듭제곱으로 올려 나머지 대신 비트 마스크로 스트라이프를 고른다.
+        int size = 1;
+        while (size < stripes) {
+            size <<= 1;
+        }
+        this.mask = size - 1;
+        this.stripes = new Map[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Object, Bucket> eldest) {
+                    return size() > maxKeysPerStripe;
+                }
+            };
+        }
+    }
+
+    /**
+     * 토큰 하나 사용
+     *
+     * @return 허용되면 0, 거절되면 다음 토큰이 찰 때까지 남은 나노초
+     */
+    public long tryAcquire(Object key) {
+        return tryAcquire(key, 1.0);
+    }
+
+    /**
+     * 토큰 permits 개 사용 (일괄 요청을 항목 수만큼 센다)
+     * capacity 보다 많이 요청하면 버킷이 가득 찼을 때만 허용하고 버킷을 비운다.
+     *
+     * @return 허용되면 0, 거절되면 필요한 토큰이 찰 때까지 남은 나노초
+     */
+    public long tryAcquire(Object key, double permits) {
+        double required = Math.min(capacity, permits);
+        Map<Object, Bucket> stripe = stripes[spread(key.hashCode()) & mask];
+        long now = nanoClock.getAsLong();
+        synchronized (stripe) {
+            Bucket bucket = stripe.get(key);
+            if (bucket == null) {
+                stripe.put(key, new Bucket(capacity - required, now));
+                return 0L;
+            }
+            double tokens = Math.min(capacity, bucket.tokens + (now - bucket.refilledAtNanos) * tokensPerNano);
+            bucket.refilledAtNanos = now;
+            if (tokens >= required) {
+                bucket.tokens = tokens - required;
+                return 0L;
+            }
+            bucket.tokens = tokens;
+            return (long) Math.ceil((required - tokens) / tokensPerNano);
+        }
+    }
+
+    /**
+     * 해시 상위 비트를 섞어 연속된 ID 도 스트라이프에 고르게 나눈다.
+     */
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
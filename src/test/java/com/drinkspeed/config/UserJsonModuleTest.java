@@ -0,0 +1,34 @@
+package com.drinkspeed.config;
+
+import com.drinkspeed.domain.User;
+import com.drinkspeed.util.DrinkTypeRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserJsonModuleTest {
+
+    @Test
+    void writesCountFieldForEveryRegisteredDrinkType() throws Exception {
+        DrinkTypeRegistry registry = new DrinkTypeRegistry();
+        ObjectMapper objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .addModule(new UserJsonModule(registry))
+                .build();
+        User user = User.builder().id(1L).userName("json").characterLevel(2).build();
+        user.addDrinkCount(registry.resolve("SOJU"), 5.0);
+        user.addDrinkCount(registry.resolve("FRUIT_SOJU"), 1.5);
+
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsBytes(user));
+
+        assertThat(json.get("id").asLong()).isEqualTo(1L);
+        assertThat(json.get("userName").asText()).isEqualTo("json");
+        assertThat(json.get("sojuCount").asDouble()).isEqualTo(5.0);
+        assertThat(json.get("fruitsojuCount").asDouble()).isEqualTo(1.5);
+        assertThat(json.get("beerCount").asDouble()).isEqualTo(0.0);
+        assertThat(json.has("drinkCountsFixed")).isFalse();
+    }
+}
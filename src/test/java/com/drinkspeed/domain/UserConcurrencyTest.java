@@ -0,0 +1,57 @@
+package com.drinkspeed.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 여러 스레드가 같은 사용자의 누적 카운터를 동시에 올려도 갱신이 유실되지 않는지 확인
+ */
+class UserConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int ADDS_PER_THREAD = 100_000;
+
+    private static final DrinkType SOJU = new DrinkType(0, "SOJU", 1.0, "sojuCount");
+    private static final DrinkType BEER = new DrinkType(1, "BEER", 0.5, "beerCount");
+
+    @Test
+    void concurrentAddsAreNotLost() throws Exception {
+        User user = User.builder().id(1L).userName("stress").build();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                // 절반은 소주, 절반은 맥주를 올려 서로 다른 배열 칸과 공통 합계를 함께 경합시킨다.
+                DrinkType drinkType = t % 2 == 0 ? SOJU : BEER;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ADDS_PER_THREAD; i++) {
+                        user.addDrinkCount(drinkType, 1.0);
+                        user.addTotalSojuEquivalent(drinkType.sojuRate());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        double perType = (double) THREADS / 2 * ADDS_PER_THREAD;
+        assertThat(user.getDrinkCount(SOJU)).isEqualTo(perType);
+        assertThat(user.getDrinkCount(BEER)).isEqualTo(perType);
+        assertThat(user.getTotalSojuEquivalent()).isEqualTo(perType * SOJU.sojuRate() + perType * BEER.sojuRate());
+    }
+}
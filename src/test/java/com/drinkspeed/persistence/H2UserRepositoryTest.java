@@ -0,0 +1,56 @@
+package com.drinkspeed.persistence;
+
+import com.drinkspeed.domain.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class H2UserRepositoryTest extends UserRepositoryContractTest {
+
+    @TempDir
+    Path directory;
+
+    private H2UserRepository h2;
+
+    @Override
+    protected UserRepository newRepository() throws Exception {
+        h2 = open();
+        return h2;
+    }
+
+    @Override
+    protected void closeRepository() {
+        h2.close();
+    }
+
+    @Test
+    void savedAndDeletedUsersSurviveReopen() throws Exception {
+        User kept = newUser(1L);
+        kept.addTotalSojuEquivalent(3.5);
+        kept.setCharacterLevel(2);
+        repository.save(kept);
+        repository.save(newUser(2L));
+        repository.delete(2L);
+        h2.close();
+
+        h2 = open();
+        assertThat(h2.count()).isEqualTo(1);
+        User restored = h2.findById(1L);
+        assertThat(restored.getUserName()).isEqualTo("user-1");
+        assertThat(restored.getJoinedAt()).isEqualTo(kept.getJoinedAt());
+        assertThat(restored.getTotalSojuEquivalent()).isEqualTo(3.5);
+        assertThat(restored.getCharacterLevel()).isEqualTo(2);
+        assertThat(restored.getDrinkCount(drinkTypeRegistry.resolve("SOJU"))).isEqualTo(1.0);
+        assertThat(h2.findById(2L)).isNull();
+    }
+
+    private H2UserRepository open() throws Exception {
+        H2UserRepository repository = new H2UserRepository(new UserSnapshotMapper(drinkTypeRegistry),
+                "jdbc:h2:file:" + directory.resolve("users").toAbsolutePath(), 50, 100);
+        repository.open();
+        return repository;
+    }
+}
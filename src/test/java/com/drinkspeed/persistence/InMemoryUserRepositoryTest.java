@@ -0,0 +1,9 @@
+package com.drinkspeed.persistence;
+
+class InMemoryUserRepositoryTest extends UserRepositoryContractTest {
+
+    @Override
+    protected UserRepository newRepository() {
+        return new InMemoryUserRepository();
+    }
+}
@@ -0,0 +1,86 @@
+package com.drinkspeed.persistence;
+
+import com.drinkspeed.domain.AiMessageStatus;
+import com.drinkspeed.domain.DrinkPace;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserArchiveTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void archivedUsersSurviveReopen() throws Exception {
+        UserArchive archive = open();
+        archive.write(snapshot(1L, "first", null));
+        archive.write(snapshot(2L, "second", pace()));
+        archive.write(snapshot(1L, "first-again", pace()));
+        archive.close();
+
+        UserArchive reopened = open();
+        assertThat(reopened.size()).isEqualTo(2);
+        assertThat(reopened.find(1L).userName()).isEqualTo("first-again");
+        assertThat(reopened.find(2L).pace().timestamps()).containsExactly(pace().timestamps());
+        assertThat(reopened.find(3L)).isNull();
+        reopened.close();
+    }
+
+    @Test
+    void unversionedArchiveIsMigratedOnOpen() throws Exception {
+        // 머리말과 레코드 버전 바이트가 없는 이전 파일
+        ByteArrayOutputStream legacy = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(legacy);
+        for (UserSnapshot snapshot : new UserSnapshot[] {snapshot(1L, "legacy", pace()), snapshot(2L, "plain", null)}) {
+            byte[] record = unversioned(snapshot);
+            out.writeInt(record.length);
+            out.write(record);
+        }
+        Files.createDirectories(directory);
+        Files.write(directory.resolve("users.archive"), legacy.toByteArray());
+
+        UserArchive archive = open();
+        archive.write(snapshot(3L, "current", null));
+        archive.close();
+
+        UserArchive reopened = open();
+        assertThat(reopened.size()).isEqualTo(3);
+        assertThat(reopened.find(1L).userName()).isEqualTo("legacy");
+        assertThat(reopened.find(1L).pace().amounts()).containsExactly(pace().amounts());
+        assertThat(reopened.find(2L).pace()).isNull();
+        assertThat(reopened.find(3L).userName()).isEqualTo("current");
+        reopened.close();
+    }
+
+    private UserArchive open() throws Exception {
+        UserArchive archive = new UserArchive(true, true, directory.toString());
+        archive.open();
+        return archive;
+    }
+
+    private static byte[] unversioned(UserSnapshot snapshot) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        snapshot.writeTo(new DataOutputStream(bytes));
+        byte[] record = bytes.toByteArray();
+        assertThat(record[0]).isEqualTo((byte) UserSnapshot.FORMAT_VERSION);
+        return Arrays.copyOfRange(record, 1, record.length);
+    }
+
+    private static UserSnapshot snapshot(long id, String userName, DrinkPace.State pace) {
+        return new UserSnapshot(id, -1L, userName, 1_000L, -1L, 2.0, Map.of("SOJU", 2.0), 1, "hi",
+                AiMessageStatus.values()[0], pace);
+    }
+
+    private static DrinkPace.State pace() {
+        return new DrinkPace.State(new long[] {1_000L, 2_000L}, new double[] {1.0, 1.0}, 1.5, 2_000L, 0.4);
+    }
+}
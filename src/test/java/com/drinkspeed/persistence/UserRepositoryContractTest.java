@@ -0,0 +1,104 @@
+package com.drinkspeed.persistence;
+
+import com.drinkspeed.domain.User;
+import com.drinkspeed.util.DrinkTypeRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * UserRepository 구현이 모두 지켜야 하는 동작 (구현별 테스트가 상속한다)
+ */
+abstract class UserRepositoryContractTest {
+
+    protected final DrinkTypeRegistry drinkTypeRegistry = new DrinkTypeRegistry();
+    protected UserRepository repository;
+
+    protected abstract UserRepository newRepository() throws Exception;
+
+    protected void closeRepository() throws Exception {
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        repository = newRepository();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        closeRepository();
+    }
+
+    @Test
+    void findByIdReturnsNullForUnknownUser() {
+        assertThat(repository.findById(42L)).isNull();
+        assertThat(repository.count()).isZero();
+        assertThat(repository.findAll()).isEmpty();
+    }
+
+    @Test
+    void saveThenFindReturnsLiveObject() {
+        User user = newUser(1L);
+        repository.save(user);
+
+        assertThat(repository.findById(1L)).isSameAs(user);
+        assertThat(repository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void savingSameUserAgainDoesNotDuplicate() {
+        User user = newUser(1L);
+        repository.save(user);
+        user.addTotalSojuEquivalent(2.0);
+        repository.save(user);
+
+        assertThat(repository.count()).isEqualTo(1);
+        assertThat(repository.findById(1L).getTotalSojuEquivalent()).isEqualTo(2.0);
+    }
+
+    @Test
+    void deleteRemovesUser() {
+        repository.save(newUser(1L));
+        repository.save(newUser(2L));
+        repository.delete(1L);
+
+        assertThat(repository.findById(1L)).isNull();
+        assertThat(repository.findById(2L)).isNotNull();
+        assertThat(repository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void deleteUnknownUserIsNoOp() {
+        repository.save(newUser(1L));
+        repository.delete(99L);
+
+        assertThat(repository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void findAllIsReadOnlyViewOfAllUsers() {
+        repository.save(newUser(1L));
+        repository.save(newUser(2L));
+        repository.save(newUser(3L));
+
+        Collection<User> users = repository.findAll();
+        assertThat(users).extracting(User::getId).containsExactlyInAnyOrder(1L, 2L, 3L);
+        assertThatThrownBy(users::clear).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    protected User newUser(long id) {
+        User user = User.builder()
+                .id(id)
+                .userName("user-" + id)
+                .joinedAt(LocalDateTime.now().withNano(0))
+                .build();
+        user.addDrinkCount(drinkTypeRegistry.resolve("SOJU"), id);
+        return user;
+    }
+}
@@ -0,0 +1,40 @@
+package com.drinkspeed.service;
+
+import com.drinkspeed.persistence.DrinkEventId;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DrinkEventDeduplicatorTest {
+
+    @Test
+    void unmarkedIdIsAcceptedAgain() {
+        DrinkEventDeduplicator deduplicator = new DrinkEventDeduplicator(10);
+
+        assertThat(deduplicator.markSeen(new DrinkEventId(1L, "tablet-1"))).isTrue();
+        assertThat(deduplicator.markSeen(new DrinkEventId(1L, "tablet-1"))).isFalse();
+
+        deduplicator.unmark(new DrinkEventId(1L, "tablet-1"));
+        assertThat(deduplicator.markSeen(new DrinkEventId(1L, "tablet-1"))).isTrue();
+    }
+
+    @Test
+    void sameEventIdOfDifferentUsersIsNotADuplicate() {
+        DrinkEventDeduplicator deduplicator = new DrinkEventDeduplicator(10);
+
+        assertThat(deduplicator.markSeen(new DrinkEventId(1L, "1"))).isTrue();
+        assertThat(deduplicator.markSeen(new DrinkEventId(2L, "1"))).isTrue();
+    }
+
+    @Test
+    void forgetsOldestIdsBeyondMaxEntries() {
+        DrinkEventDeduplicator deduplicator = new DrinkEventDeduplicator(2);
+        deduplicator.markSeen(new DrinkEventId(1L, "a"));
+        deduplicator.markSeen(new DrinkEventId(1L, "b"));
+        deduplicator.markSeen(new DrinkEventId(1L, "c"));
+
+        assertThat(deduplicator.markSeen(new DrinkEventId(1L, "a"))).isTrue();
+        assertThat(deduplicator.markSeen(new DrinkEventId(1L, "c"))).isFalse();
+        assertThat(deduplicator.recent()).containsExactly(new DrinkEventId(1L, "c"), new DrinkEventId(1L, "a"));
+    }
+}
@@ -0,0 +1,159 @@
+package com.drinkspeed.service;
+
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 모의 Gemini 서버로 확인하는 호출 보호 장치 동작
+ */
+class GeminiCallGuardTest {
+
+    private static final long MIN_TIMEOUT_MS = 50;
+    private static final long MAX_TIMEOUT_MS = 300;
+    private static final long OPEN_DURATION_MS = 100;
+
+    private MockWebServer server;
+    private OkHttpClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        client = new OkHttpClient();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    void timedOutCallIsRecordedAsSampleAtItsTimeout() {
+        GeminiCallGuard guard = newGuard(5);
+        server.enqueue(new MockResponse().setBody("late").setHeadersDelay(2, TimeUnit.SECONDS));
+
+        assertThat(guard.execute(this::get)).isNull();
+
+        assertThat(guard.stats().get("failures")).isEqualTo(1L);
+        assertThat(guard.stats().get("latencyPercentileMs")).isEqualTo(MAX_TIMEOUT_MS);
+    }
+
+    @Test
+    void halfOpenTrialUsesMaxTimeout() throws InterruptedException {
+        GeminiCallGuard guard = newGuard(1);
+        for (int i = 0; i < 20; i++) {
+            server.enqueue(new MockResponse().setBody("ok"));
+            assertThat(guard.execute(this::get)).isEqualTo("ok");
+        }
+        assertThat((Long) guard.stats().get("currentTimeoutMs")).isLessThan(MAX_TIMEOUT_MS);
+
+        server.enqueue(new MockResponse().setResponseCode(503));
+        assertThat(guard.execute(this::get)).isNull();
+        assertThat(guard.stats().get("circuitState")).isEqualTo("OPEN");
+        Thread.sleep(OPEN_DURATION_MS + 50);
+
+        AtomicLong trialTimeoutMs = new AtomicLong();
+        server.enqueue(new MockResponse().setBody("ok"));
+        String result = guard.execute(timeoutMs -> {
+            trialTimeoutMs.set(timeoutMs);
+            return get(timeoutMs);
+        });
+
+        assertThat(result).isEqualTo("ok");
+        assertThat(trialTimeoutMs.get()).isEqualTo(MAX_TIMEOUT_MS);
+        assertThat(guard.stats().get("circuitState")).isEqualTo("CLOSED");
+    }
+
+    @Test
+    void unexpectedExceptionReleasesHalfOpenTrial() throws InterruptedException {
+        GeminiCallGuard guard = newGuard(1);
+        server.enqueue(new MockResponse().setResponseCode(500));
+        assertThat(guard.execute(this::get)).isNull();
+        Thread.sleep(OPEN_DURATION_MS + 50);
+
+        assertThatThrownBy(() -> guard.execute(timeoutMs -> {
+            throw new IllegalStateException("unexpected");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(guard.stats().get("circuitState")).isEqualTo("OPEN");
+        Thread.sleep(OPEN_DURATION_MS + 50);
+
+        server.enqueue(new MockResponse().setBody("ok"));
+        assertThat(guard.execute(this::get)).isEqualTo("ok");
+        assertThat(guard.stats().get("circuitState")).isEqualTo("CLOSED");
+    }
+
+    @Test
+    void busyHalfOpenTrialRejectsWithoutWaitingForConcurrencySlot() throws Exception {
+        GeminiCallGuard guard = newGuard(1, 1, 2000);
+        server.enqueue(new MockResponse().setResponseCode(500));
+        assertThat(guard.execute(this::get)).isNull();
+        Thread.sleep(OPEN_DURATION_MS + 50);
+
+        CountDownLatch trialStarted = new CountDownLatch(1);
+        CountDownLatch releaseTrial = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> trial = executor.submit(() -> guard.execute(timeoutMs -> {
+                trialStarted.countDown();
+                try {
+                    releaseTrial.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "ok";
+            }));
+            assertThat(trialStarted.await(1, TimeUnit.SECONDS)).isTrue();
+
+            long startedAt = System.nanoTime();
+            assertThat(guard.execute(this::get)).isNull();
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt)).isLessThan(1000L);
+            assertThat(guard.stats().get("rejectedOpen")).isEqualTo(1L);
+            assertThat(guard.stats().get("rejectedConcurrency")).isEqualTo(0L);
+
+            releaseTrial.countDown();
+            assertThat(trial.get(1, TimeUnit.SECONDS)).isEqualTo("ok");
+        } finally {
+            releaseTrial.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private GeminiCallGuard newGuard(int failureThreshold) {
+        return newGuard(failureThreshold, 4, 1000);
+    }
+
+    private GeminiCallGuard newGuard(int failureThreshold, int maxConcurrentCalls, long acquireTimeoutMs) {
+        return new GeminiCallGuard(failureThreshold, OPEN_DURATION_MS, 0.99, 2.0, MIN_TIMEOUT_MS, MAX_TIMEOUT_MS,
+                maxConcurrentCalls, acquireTimeoutMs, 0, 1, 0.2, MIN_TIMEOUT_MS, MAX_TIMEOUT_MS,
+                MIN_TIMEOUT_MS, MAX_TIMEOUT_MS);
+    }
+
+    private String get(long timeoutMs) throws IOException, GeminiCallGuard.RetryableException {
+        Call call = client.newCall(new Request.Builder().url(server.url("/")).build());
+        call.timeout().timeout(timeoutMs, TimeUnit.MILLISECONDS);
+        try (Response response = call.execute()) {
+            if (response.code() >= 500) {
+                throw new GeminiCallGuard.RetryableException("HTTP " + response.code());
+            }
+            return response.body().string();
+        }
+    }
+}
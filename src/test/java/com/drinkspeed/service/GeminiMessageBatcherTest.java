@@ -0,0 +1,74 @@
+package com.drinkspeed.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GeminiMessageBatcherTest {
+
+    private static final int REQUESTS = 25;
+    private static final int MAX_BATCH_SIZE = 10;
+
+    @Test
+    void batchesNeverExceedMaxSizeAndEveryCallerGetsItsMessage() throws Exception {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        GeminiMessageBatcher batcher = new GeminiMessageBatcher(true, 200, MAX_BATCH_SIZE, keys -> {
+            batchSizes.add(keys.size());
+            Map<GeminiResultCache.Key, String> messages = new HashMap<>();
+            keys.forEach(key -> messages.put(key, "batch " + key.userName()));
+            return messages;
+        }, key -> "single " + key.userName());
+
+        List<String> results = submitConcurrently(batcher);
+
+        assertThat(batchSizes).allSatisfy(size -> assertThat(size).isLessThanOrEqualTo(MAX_BATCH_SIZE));
+        for (int i = 0; i < REQUESTS; i++) {
+            assertThat(results.get(i)).endsWith(" user-" + i);
+        }
+    }
+
+    @Test
+    void missesAreRetriedByEachCallerInsteadOfTheLeader() throws Exception {
+        Set<String> singleCallThreads = ConcurrentHashMap.newKeySet();
+        GeminiMessageBatcher batcher = new GeminiMessageBatcher(true, 200, MAX_BATCH_SIZE, keys -> Map.of(), key -> {
+            singleCallThreads.add(Thread.currentThread().getName());
+            return "single " + key.userName();
+        });
+
+        List<String> results = submitConcurrently(batcher);
+
+        for (int i = 0; i < REQUESTS; i++) {
+            assertThat(results.get(i)).isEqualTo("single user-" + i);
+        }
+        assertThat(singleCallThreads).hasSize(REQUESTS);
+    }
+
+    private static List<String> submitConcurrently(GeminiMessageBatcher batcher) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(REQUESTS);
+        try {
+            List<Future<String>> futures = IntStream.range(0, REQUESTS)
+                    .mapToObj(i -> executor.submit(() -> batcher.submit(
+                            new GeminiResultCache.Key("user-" + i, 1, 70, 2))))
+                    .toList();
+            List<String> results = new ArrayList<>();
+            for (Future<String> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
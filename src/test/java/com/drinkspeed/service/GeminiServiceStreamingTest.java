@@ -0,0 +1,118 @@
+package com.drinkspeed.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 모의 Gemini 서버로 확인하는 스트리밍 모드 동작
+ */
+class GeminiServiceStreamingTest {
+
+    private static final long MIN_TIMEOUT_MS = 50;
+    private static final long MAX_TIMEOUT_MS = 300;
+    private static final long IDLE_TIMEOUT_MS = 200;
+    private static final long CHUNK_DELAY_MS = 60;
+    private static final int CHUNKS = 8;
+
+    private MockWebServer server;
+    private GeminiCallGuard callGuard;
+    private GeminiService geminiService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        callGuard = new GeminiCallGuard(5, 30_000, 0.99, 2.0, MIN_TIMEOUT_MS, MAX_TIMEOUT_MS, 4, 1000, 0, 1, 0.2,
+                MIN_TIMEOUT_MS, MAX_TIMEOUT_MS, MIN_TIMEOUT_MS, MAX_TIMEOUT_MS);
+        String apiUrl = server.url("/v1beta/models/mock:generateContent").toString();
+        geminiService = new GeminiService(new GeminiResultCache(300, 1000, 3600), callGuard,
+                new SimpleMeterRegistry(), "mock-key", apiUrl, true, "", IDLE_TIMEOUT_MS, false, 0, 1);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    void streamedTextIsCumulativeAndMatchesBlockingResult() throws InterruptedException {
+        List<String> pieces = new ArrayList<>();
+        for (int i = 0; i < CHUNKS; i++) {
+            pieces.add("chunk " + i + " of the message. ");
+        }
+        String event = sseEvent(pieces.get(0));
+        // 청크 사이 간격은 idle 타임아웃보다 짧지만 전체 시간은 단일 호출 최대 타임아웃보다 길다.
+        server.enqueue(sseResponse(pieces).throttleBody(event.getBytes(StandardCharsets.UTF_8).length,
+                CHUNK_DELAY_MS, TimeUnit.MILLISECONDS));
+        server.enqueue(new MockResponse().setBody(candidateJson(String.join("", pieces))));
+
+        List<String> partials = new CopyOnWriteArrayList<>();
+        String streamed = geminiService.streamDrinkingResultMessage("streaming", 3600, 7.0, 2, partials::add);
+        assertThat(callGuard.stats().get("latencyPercentileMs")).isEqualTo(0L);
+
+        String blocking = geminiService.requestDrinkingResultMessage("blocking", 3600, 7.0, 2);
+
+        assertThat(server.takeRequest().getPath()).contains(":streamGenerateContent").contains("alt=sse");
+        assertThat(partials).hasSize(CHUNKS);
+        for (int i = 1; i < partials.size(); i++) {
+            assertThat(partials.get(i)).startsWith(partials.get(i - 1));
+        }
+        assertThat(streamed).isEqualTo(String.join("", pieces).trim()).isEqualTo(blocking);
+        assertThat(callGuard.stats().get("failures")).isEqualTo(0L);
+    }
+
+    @Test
+    void stalledStreamFailsAfterIdleTimeout() {
+        List<String> pieces = List.of("first chunk. ", "second chunk. ");
+        String event = sseEvent(pieces.get(0));
+        server.enqueue(sseResponse(pieces).throttleBody(event.getBytes(StandardCharsets.UTF_8).length,
+                1, TimeUnit.SECONDS));
+
+        List<String> partials = new CopyOnWriteArrayList<>();
+        String streamed = geminiService.streamDrinkingResultMessage("stalled", 3600, 7.0, 2, partials::add);
+
+        assertThat(streamed).isNull();
+        assertThat(partials).containsExactly("first chunk. ");
+        assertThat(callGuard.stats().get("failures")).isEqualTo(1L);
+    }
+
+    @Test
+    void firstByteTimeoutIsRecordedAsStreamSampleOnly() {
+        server.enqueue(sseResponse(List.of("late. ")).setHeadersDelay(1, TimeUnit.SECONDS));
+
+        assertThat(geminiService.streamDrinkingResultMessage("late", 3600, 7.0, 2, partial -> { })).isNull();
+
+        assertThat(callGuard.stats().get("failures")).isEqualTo(1L);
+        assertThat(callGuard.stats().get("streamFirstBytePercentileMs")).isEqualTo(MAX_TIMEOUT_MS);
+        assertThat(callGuard.stats().get("latencyPercentileMs")).isEqualTo(0L);
+    }
+
+    private static MockResponse sseResponse(List<String> pieces) {
+        StringBuilder body = new StringBuilder();
+        pieces.forEach(piece -> body.append(sseEvent(piece)));
+        return new MockResponse()
+                .setHeader("Content-Type", "text/event-stream")
+                .setBody(body.toString());
+    }
+
+    private static String sseEvent(String text) {
+        return "data: " + candidateJson(text) + "\r\n\r\n";
+    }
+
+    private static String candidateJson(String text) {
+        return "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"" + text + "\"}],\"role\":\"model\"}}]}";
+    }
+}
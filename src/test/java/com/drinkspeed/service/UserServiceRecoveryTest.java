@@ -0,0 +1,174 @@
+package com.drinkspeed.service;
+
+import com.drinkspeed.domain.User;
+import com.drinkspeed.domain.DrinkPace;
+import com.drinkspeed.dto.DrinkBatchResponse;
+import com.drinkspeed.dto.DrinkEntry;
+import com.drinkspeed.persistence.H2UserRepository;
+import com.drinkspeed.persistence.InMemoryUserRepository;
+import com.drinkspeed.persistence.UserArchive;
+import com.drinkspeed.persistence.UserEventLog;
+import com.drinkspeed.persistence.UserRepository;
+import com.drinkspeed.persistence.UserSnapshotMapper;
+import com.drinkspeed.util.AlcoholCalculator;
+import com.drinkspeed.util.DrinkTypeRegistry;
+import com.drinkspeed.util.PaceCalculator;
+import com.drinkspeed.util.RankingCalculator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 재시작 시 복구 (h2 저장소만 사용할 때, 이벤트 로그 스냅샷 + 재생)
+ */
+class UserServiceRecoveryTest {
+
+    @TempDir
+    Path directory;
+
+    private final DrinkTypeRegistry drinkTypeRegistry = new DrinkTypeRegistry();
+
+    @Test
+    void restartWithoutEventLogRestoresIdsRankingsAndActiveUsers() throws Exception {
+        H2UserRepository repository = openRepository();
+        UserService before = newUserService(repository);
+        before.recoverUserStore();
+        User first = before.createUser("first");
+        User second = before.createUser("second");
+        before.addDrink(second.getId(), "SOJU", 3);
+        repository.close();
+
+        repository = openRepository();
+        UserService after = newUserService(repository);
+        after.recoverUserStore();
+
+        User third = after.createUser("third");
+        assertThat(third.getId()).isGreaterThan(second.getId());
+        assertThat(after.findUserById(first.getId()).getUserName()).isEqualTo("first");
+        assertThat(after.getRankings()).extracting(User::getId)
+                .containsExactlyInAnyOrder(first.getId(), second.getId(), third.getId());
+        assertThat(after.getRankings().get(0).getId()).isEqualTo(second.getId());
+        assertThat(after.getActiveUsers()).extracting(User::getId)
+                .containsExactlyInAnyOrder(first.getId(), second.getId(), third.getId());
+        repository.close();
+    }
+
+    @Test
+    void snapshotAndReplayRestoreTotalsAndPace() throws Exception {
+        UserEventLog writeLog = new UserEventLog(true, directory.resolve("wal").toString(), 50);
+        UserService before = newUserService(new InMemoryUserRepository(), writeLog);
+        before.recoverUserStore();
+        User user = before.createUser("user");
+        before.addDrink(user.getId(), "SOJU", 2);
+        before.addDrink(user.getId(), "BEER", 1);
+        before.snapshotUserStore();
+        before.addDrink(user.getId(), "SOJU", 1);
+        writeLog.close();
+
+        UserEventLog readLog = new UserEventLog(true, directory.resolve("wal").toString(), 50);
+        UserService after = newUserService(new InMemoryUserRepository(), readLog);
+        after.recoverUserStore();
+        User restored = after.findUserById(user.getId());
+        readLog.close();
+
+        assertThat(restored.getTotalSojuEquivalent()).isEqualTo(user.getTotalSojuEquivalent());
+        DrinkPace.State expected = user.getPace().state();
+        DrinkPace.State actual = restored.getPace().state();
+        assertThat(actual.timestamps()).containsExactly(expected.timestamps());
+        assertThat(actual.amounts()).containsExactly(expected.amounts());
+        assertThat(actual.decayScore()).isEqualTo(expected.decayScore());
+    }
+
+    @Test
+    void resentEventIdsAreDuplicatesAfterRestart() throws Exception {
+        UserEventLog writeLog = new UserEventLog(true, directory.resolve("wal").toString(), 50);
+        UserService before = newUserService(new InMemoryUserRepository(), writeLog);
+        before.recoverUserStore();
+        User first = before.createUser("first");
+        User second = before.createUser("second");
+        before.addDrinks(List.of(entry("1", first.getId()), entry("1", second.getId())));
+        before.snapshotUserStore();
+        before.addDrinks(List.of(entry("2", first.getId())));
+        writeLog.close();
+
+        UserEventLog readLog = new UserEventLog(true, directory.resolve("wal").toString(), 50);
+        UserService after = newUserService(new InMemoryUserRepository(), readLog);
+        after.recoverUserStore();
+        DrinkBatchResponse response = after.addDrinks(List.of(entry("1", first.getId()), entry("1", second.getId()),
+                entry("2", first.getId()), entry("3", first.getId())));
+        readLog.close();
+
+        assertThat(response.getDuplicates()).isEqualTo(3);
+        assertThat(response.getApplied()).isEqualTo(1);
+        assertThat(after.findUserById(first.getId()).getTotalSojuEquivalent()).isEqualTo(3.0);
+        assertThat(after.findUserById(second.getId()).getTotalSojuEquivalent()).isEqualTo(1.0);
+    }
+
+    @Test
+    void batchEntriesAreAppliedInClientTimestampOrderAndReplayedTheSame() throws Exception {
+        UserEventLog writeLog = new UserEventLog(true, directory.resolve("wal").toString(), 50);
+        UserService before = newUserService(new InMemoryUserRepository(), writeLog);
+        before.recoverUserStore();
+        User user = before.createUser("offline");
+        long joinedAt = user.getJoinedAtMillis();
+        Thread.sleep(10);
+        // 오프라인 기기가 순서를 섞어 보낸 기록
+        before.addDrinks(List.of(entry("3", user.getId(), joinedAt + 3), entry("1", user.getId(), joinedAt + 1),
+                entry("2", user.getId(), joinedAt + 2)));
+        writeLog.close();
+
+        UserEventLog readLog = new UserEventLog(true, directory.resolve("wal").toString(), 50);
+        UserService after = newUserService(new InMemoryUserRepository(), readLog);
+        after.recoverUserStore();
+        readLog.close();
+
+        assertThat(user.getPace().state().timestamps()).containsExactly(joinedAt + 1, joinedAt + 2, joinedAt + 3);
+        assertThat(after.findUserById(user.getId()).getPace().state().timestamps())
+                .containsExactly(joinedAt + 1, joinedAt + 2, joinedAt + 3);
+    }
+
+    private static DrinkEntry entry(String eventId, long userId, long clientTimestamp) {
+        return DrinkEntry.builder().eventId(eventId).userId(userId).drinkType("SOJU").glassCount(1)
+                .clientTimestamp(clientTimestamp).build();
+    }
+
+    private static DrinkEntry entry(String eventId, long userId) {
+        return DrinkEntry.builder().eventId(eventId).userId(userId).drinkType("SOJU").glassCount(1).build();
+    }
+
+    private H2UserRepository openRepository() throws Exception {
+        H2UserRepository repository = new H2UserRepository(new UserSnapshotMapper(drinkTypeRegistry),
+                "jdbc:h2:file:" + directory.resolve("users").toAbsolutePath(), 50, 100);
+        repository.open();
+        return repository;
+    }
+
+    private UserService newUserService(UserRepository repository) {
+        return newUserService(repository, new UserEventLog(false, directory.resolve("wal").toString(), 50));
+    }
+
+    private UserService newUserService(UserRepository repository, UserEventLog userEventLog) {
+        ClusterService clusterService = new ClusterService(false, 0, List.of(), 128, 100, 2000, "", new ObjectMapper());
+        return new UserService(
+                new RoomService(userEventLog, event -> {
+                }, clusterService),
+                new AlcoholCalculator(),
+                drinkTypeRegistry,
+                new RankingCalculator(),
+                new PaceCalculator(15, 10),
+                null,
+                event -> {
+                },
+                userEventLog,
+                new UserArchive(false, false, directory.resolve("archive").toString()),
+                new DrinkEventDeduplicator(1000),
+                repository,
+                new UserSnapshotMapper(drinkTypeRegistry),
+                clusterService);
+    }
+}
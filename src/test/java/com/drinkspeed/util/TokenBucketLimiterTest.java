@@ -0,0 +1,34 @@
+package com.drinkspeed.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketLimiterTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final TokenBucketLimiter limiter = new TokenBucketLimiter(10, 1.0, 4, 16, nanos::get);
+
+    @Test
+    void weightedAcquireChargesEveryPermit() {
+        assertThat(limiter.tryAcquire(1L, 8)).isZero();
+        assertThat(limiter.tryAcquire(1L, 3)).isPositive();
+        assertThat(limiter.tryAcquire(1L, 2)).isZero();
+        assertThat(limiter.tryAcquire(1L)).isPositive();
+    }
+
+    @Test
+    void requestLargerThanCapacityNeedsAFullBucketAndDrainsIt() {
+        assertThat(limiter.tryAcquire(1L, 1000)).isZero();
+        assertThat(limiter.tryAcquire(1L)).isPositive();
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        assertThat(limiter.tryAcquire(1L, 1000)).isPositive();
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(6));
+        assertThat(limiter.tryAcquire(1L, 1000)).isZero();
+    }
+}